@@ -0,0 +1,28 @@
+package com.failforward.deaddocs_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class BackgroundTaskConfig {
+
+    /**
+     * Executor for background jobs such as the like-count reconciliation
+     * Runs each task on its own virtual thread when spring.threads.virtual.enabled is set,
+     * otherwise on a small pool of daemon platform threads
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService backgroundExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${app.background.pool-size:2}") int poolSize) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("background-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(poolSize,
+                Thread.ofPlatform().name("background-", 0).daemon(true).factory());
+    }
+}
@@ -0,0 +1,53 @@
+package com.failforward.deaddocs_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary and read-replica connection pools behind one routing DataSource
+ * Connections are fetched lazily, on the first statement of a transaction, by which point
+ * a @Transactional(readOnly = true) transaction has marked its connection read-only; those
+ * are taken from the replica pool and everything else from the primary. Without
+ * app.datasource.replica.enabled every transaction uses the primary.
+ * Only reads that tolerate replica lag are marked read-only. Existence checks ahead of writes
+ * (StoryService.getStoryById) and reads answered under an ETag (comments and counts) stay on
+ * the primary, because the tag comes from versions bumped on primary commits. Open-in-view is
+ * off, since a request-wide session would hold its first connection across later transactions.
+ * The primary pool keeps the spring.datasource.* and spring.datasource.hikari.* properties;
+ * the replica pool is configured with Hikari property names under app.datasource.replica.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replicaDataSource) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primaryDataSource);
+        replicaDataSource.ifAvailable(routing::setReadOnlyDataSource);
+        return routing;
+    }
+}
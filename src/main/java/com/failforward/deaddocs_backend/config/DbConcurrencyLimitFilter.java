@@ -0,0 +1,126 @@
+package com.failforward.deaddocs_backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of API requests in flight at the size of the connection pool
+ * With virtual threads Tomcat no longer bounds concurrency, so thousands of parked
+ * requests would otherwise queue inside Hikari until connection-timeout. Excess
+ * requests wait briefly for a permit and are then rejected with 503.
+ * Streaming responses hold their permit until the async exchange completes; SSE subscriptions,
+ * which do not touch the database once open, release it as soon as the stream is set up.
+ */
+@Component
+public class DbConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final boolean enabled;
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+
+    public DbConcurrencyLimitFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.db.concurrency-limit.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+            @Value("${app.db.concurrency-limit.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${app.db.concurrency-limit.max-wait:2s}") Duration maxWait) {
+        this.enabled = enabled;
+        this.permits = new Semaphore(permits, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.rejected = Counter.builder("db.concurrency.limit.rejected")
+                .description("API requests rejected because no database permit became available")
+                .register(meterRegistry);
+        Gauge.builder("db.concurrency.limit.available", this.permits, Semaphore::availablePermits)
+                .description("Free database permits")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server busy, please retry");
+            return;
+        }
+        AtomicBoolean held = new AtomicBoolean(true);
+        Runnable release = () -> {
+            if (held.compareAndSet(true, false)) {
+                permits.release();
+            }
+        };
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted() && !isEventStream(request)) {
+                // Streaming bodies keep reading from the database after doFilter returns;
+                // async dispatches skip this filter, so the permit is released when the exchange ends
+                request.getAsyncContext().addListener(new PermitReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    // SSE streams are fed from the in-memory update bus and may stay open for minutes.
+    // Their headers are only written with the first event, so go by what the handler produces
+    private static boolean isEventStream(HttpServletRequest request) {
+        return request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE) instanceof Collection<?> types
+                && types.contains(MediaType.TEXT_EVENT_STREAM);
+    }
+
+    private record PermitReleasingListener(Runnable release) implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-register for the next async cycle, or the permit would never be returned
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
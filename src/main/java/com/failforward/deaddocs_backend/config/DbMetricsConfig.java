@@ -0,0 +1,19 @@
+package com.failforward.deaddocs_backend.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hooks the statement counter into Hibernate
+ * Repository timings (spring.data.repository.invocations) and Hikari pool metrics
+ * (hikaricp.connections.*) come from Spring Boot's auto-configuration.
+ */
+@Configuration
+public class DbMetricsConfig {
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+}
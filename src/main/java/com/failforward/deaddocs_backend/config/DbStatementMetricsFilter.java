@@ -0,0 +1,56 @@
+package com.failforward.deaddocs_backend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each API request executed, per endpoint
+ * A request whose count grows with the size of the data it returns is an N+1 query;
+ * requests over app.db.statement-budget.per-request are reported by StatementBudget.
+ * Only statements on the request thread are counted. Work handed to an async dispatch thread,
+ * such as a streamed export body or an SSE stream, is neither recorded nor checked.
+ */
+@Component
+public class DbStatementMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final StatementBudget statementBudget;
+
+    public DbStatementMetricsFilter(MeterRegistry meterRegistry, StatementBudget statementBudget) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long before = StatementCounter.current();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long statements = StatementCounter.since(before);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            DistributionSummary.builder("http.server.requests.db.statements")
+                    .description("SQL statements executed per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+            statementBudget.checkRequest(request.getMethod() + " " + uri, statements);
+        }
+    }
+}
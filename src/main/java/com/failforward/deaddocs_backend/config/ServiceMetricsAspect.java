@@ -0,0 +1,65 @@
+package com.failforward.deaddocs_backend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the story, like and comment services
+ * Each call is recorded under app.service.calls, tagged with service, method and outcome;
+ * the timer's count doubles as the call counter, and the error outcome as the failure counter.
+ * The SQL statements each call executed go to app.service.db.statements and are checked against
+ * app.db.statement-budget.per-service-call; a call's count includes the services it calls.
+ * Only calls through the Spring proxy are seen, not calls a service makes to itself.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+    private final MeterRegistry meterRegistry;
+    private final StatementBudget statementBudget;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry, StatementBudget statementBudget) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+    }
+
+    @Around("execution(public * com.failforward.deaddocs_backend.service.StoryService.*(..))"
+            + " || execution(public * com.failforward.deaddocs_backend.service.StoryLikesService.*(..))"
+            + " || execution(public * com.failforward.deaddocs_backend.service.CommentService.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long before = StatementCounter.current();
+        String outcome = "success";
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+            String method = joinPoint.getSignature().getName();
+            sample.stop(Timer.builder("app.service.calls")
+                    .description("Service method calls")
+                    .tag("service", service)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+
+            long statements = StatementCounter.since(before);
+            DistributionSummary.builder("app.service.db.statements")
+                    .description("SQL statements executed per service call")
+                    .tag("service", service)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .record(statements);
+            statementBudget.checkServiceCall(service + "." + method, statements);
+        }
+    }
+}
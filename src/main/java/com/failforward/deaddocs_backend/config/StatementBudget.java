@@ -0,0 +1,58 @@
+package com.failforward.deaddocs_backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Flags requests and service calls that execute more SQL statements than their budget
+ * Offenders are logged at WARN and counted under db.statement.budget.exceeded, so hidden
+ * extra queries (typically N+1 loops) surface before they show up as latency.
+ * A budget of 0 turns the check off for that scope.
+ */
+@Component
+public class StatementBudget {
+    private static final Logger log = LoggerFactory.getLogger(StatementBudget.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long perRequest;
+    private final long perServiceCall;
+
+    public StatementBudget(MeterRegistry meterRegistry,
+                           @Value("${app.db.statement-budget.per-request:10}") long perRequest,
+                           @Value("${app.db.statement-budget.per-service-call:5}") long perServiceCall) {
+        this.meterRegistry = meterRegistry;
+        this.perRequest = perRequest;
+        this.perServiceCall = perServiceCall;
+    }
+
+    /**
+     * @param name method and URI pattern of the request
+     */
+    public void checkRequest(String name, long statements) {
+        check("request", name, statements, perRequest);
+    }
+
+    /**
+     * @param name service and method, e.g. StoryService.getFeed
+     */
+    public void checkServiceCall(String name, long statements) {
+        check("service", name, statements, perServiceCall);
+    }
+
+    private void check(String scope, String name, long statements, long budget) {
+        if (budget <= 0 || statements <= budget) {
+            return;
+        }
+        Counter.builder("db.statement.budget.exceeded")
+                .description("Requests and service calls over their SQL statement budget")
+                .tag("scope", scope)
+                .tag("name", name)
+                .register(meterRegistry)
+                .increment();
+        log.warn("{} {} executed {} SQL statements, budget is {}", scope, name, statements, budget);
+    }
+}
@@ -0,0 +1,34 @@
+package com.failforward.deaddocs_backend.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares on the current thread
+ * The count only ever grows; callers take a snapshot before a unit of work and subtract it
+ * afterwards, so nested scopes (request, service call) measure independently.
+ * Statements issued through JdbcTemplate bypass Hibernate and are not counted, nor are
+ * statements run on other threads, e.g. async dispatch threads serving streaming or SSE responses.
+ */
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Statements prepared on this thread so far
+     */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * Statements prepared on this thread since the given snapshot of current()
+     */
+    public static long since(long snapshot) {
+        return current() - snapshot;
+    }
+}
@@ -2,11 +2,19 @@ package com.failforward.deaddocs_backend.controller;
 
 import com.failforward.deaddocs_backend.dto.CommentRequest;
 import com.failforward.deaddocs_backend.dto.CommentResponse;
+import com.failforward.deaddocs_backend.dto.CursorPage;
 import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
 import com.failforward.deaddocs_backend.service.CommentService;
+import com.failforward.deaddocs_backend.service.ContentVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @CrossOrigin(origins = "https://fail-forward.vercel.app")
@@ -14,9 +22,14 @@ import java.util.List;
 @RequestMapping("/api/comments")
 public class CommentController {
     private final CommentService commentService;
+    private final ObjectMapper objectMapper;
+    private final ContentVersions contentVersions;
 
-    public CommentController(CommentService commentService) {
+    public CommentController(CommentService commentService, ObjectMapper objectMapper,
+                             ContentVersions contentVersions) {
         this.commentService = commentService;
+        this.objectMapper = objectMapper;
+        this.contentVersions = contentVersions;
     }
 
     /**
@@ -44,16 +57,21 @@ public class CommentController {
 
     /**
      * Get all comments for a story
+     * Answers If-None-Match with 304 while the thread is unchanged
      */
     @GetMapping("/story/{storyId}")
-    public ResponseEntity<?> getCommentsByStoryId(@PathVariable Integer storyId) {
+    public ResponseEntity<?> getCommentsByStoryId(@PathVariable Integer storyId, WebRequest webRequest) {
         try {
             if (storyId == null) {
                 return ResponseEntity.badRequest().body("Story ID cannot be null");
             }
+            String etag = contentVersions.storyETag(storyId);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
 
             List<CommentResponse> comments = commentService.getCommentsByStoryId(storyId);
-            return ResponseEntity.ok(comments);
+            return ResponseEntity.ok().eTag(etag).cacheControl(ConditionalGet.REVALIDATE).body(comments);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
@@ -61,6 +79,48 @@ public class CommentController {
         }
     }
 
+    /**
+     * Get a page of comments for a story, newest first
+     * Pass the returned nextCursor back to fetch the following page
+     */
+    @GetMapping("/story/{storyId}/page")
+    public ResponseEntity<?> getCommentPage(@PathVariable Integer storyId,
+                                            @RequestParam(value = "cursor", required = false) String cursor,
+                                            @RequestParam(value = "limit", defaultValue = "20") int limit,
+                                            WebRequest webRequest) {
+        try {
+            String etag = contentVersions.storyETag(storyId);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            CursorPage<CommentResponse> page = commentService.getCommentPage(storyId, cursor, limit);
+            return ResponseEntity.ok().eTag(etag).cacheControl(ConditionalGet.REVALIDATE).body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error fetching comments: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stream all comments for a story as newline-delimited JSON
+     * Rows are written as they are read, so large threads are never buffered in memory
+     */
+    @GetMapping(value = "/story/{storyId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamComments(@PathVariable Integer storyId) {
+        StreamingResponseBody body = out -> commentService.streamCommentsByStoryId(storyId, comment -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(comment));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * Get comments by user ID
      */
@@ -105,16 +165,21 @@ public class CommentController {
 
     /**
      * Get comment count for a story
+     * Answers If-None-Match with 304 while the thread is unchanged
      */
     @GetMapping("/count/{storyId}")
-    public ResponseEntity<?> getCommentCount(@PathVariable Integer storyId) {
+    public ResponseEntity<?> getCommentCount(@PathVariable Integer storyId, WebRequest webRequest) {
         try {
             if (storyId == null) {
                 return ResponseEntity.badRequest().body("Story ID cannot be null");
             }
+            String etag = contentVersions.storyETag(storyId);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
 
             long count = commentService.getCommentCount(storyId);
-            return ResponseEntity.ok(count);
+            return ResponseEntity.ok().eTag(etag).cacheControl(ConditionalGet.REVALIDATE).body(count);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Error getting comment count: " + e.getMessage());
         }
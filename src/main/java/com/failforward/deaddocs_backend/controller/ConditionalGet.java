@@ -0,0 +1,14 @@
+package com.failforward.deaddocs_backend.controller;
+
+import org.springframework.http.CacheControl;
+
+/**
+ * Shared caching policy for reads that carry a version ETag
+ */
+final class ConditionalGet {
+    // Clients may keep the body but must revalidate it; a matching If-None-Match then costs a 304
+    static final CacheControl REVALIDATE = CacheControl.noCache();
+
+    private ConditionalGet() {
+    }
+}
@@ -0,0 +1,90 @@
+package com.failforward.deaddocs_backend.controller;
+
+import com.failforward.deaddocs_backend.dto.ExportFormat;
+import com.failforward.deaddocs_backend.dto.ExportTable;
+import com.failforward.deaddocs_backend.service.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Full-table exports for operators
+ * Exports include user ids and likes, so every request must carry app.export.admin-token in the
+ * X-Admin-Token header; without a configured token the endpoint is disabled.
+ */
+@CrossOrigin(origins = "https://fail-forward.vercel.app")
+@RestController
+@RequestMapping("/api/exports")
+public class ExportController {
+    public static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final ExportService exportService;
+    private final byte[] adminToken;
+
+    public ExportController(ExportService exportService,
+                            @Value("${app.export.admin-token:}") String adminToken) {
+        this.exportService = exportService;
+        this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Download a gzip-compressed export, streamed straight from the database
+     * @param table "stories", "comments", "likes", or "all" (NDJSON only)
+     * @param format "ndjson" (default) or "csv"
+     * @return 404 when exports are disabled, 403 without the admin token, 429 when
+     * app.export.max-concurrent exports are already running
+     */
+    @GetMapping("/{table}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable("table") String table,
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token) {
+        if (adminToken.length == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        if (token == null || !MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        Collection<ExportTable> tables = "all".equalsIgnoreCase(table)
+                ? EnumSet.allOf(ExportTable.class)
+                : List.of(ExportTable.fromParam(table));
+        if (exportFormat == ExportFormat.CSV && tables.size() > 1) {
+            throw new IllegalArgumentException("CSV exports take exactly one table");
+        }
+
+        String filename = table.toLowerCase(Locale.ROOT) + "-" + LocalDate.now() + "." + exportFormat.getExtension() + ".gz";
+        if (!exportService.tryAcquireSlot()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "60")
+                    .build();
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                exportService.export(tables, exportFormat, out);
+            } finally {
+                exportService.releaseSlot();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
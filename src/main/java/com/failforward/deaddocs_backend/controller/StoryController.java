@@ -1,13 +1,28 @@
 package com.failforward.deaddocs_backend.controller;
 
+import com.failforward.deaddocs_backend.dto.BulkImportResult;
+import com.failforward.deaddocs_backend.dto.CursorPage;
+import com.failforward.deaddocs_backend.dto.FeedSort;
+import com.failforward.deaddocs_backend.dto.IndustryFacet;
 import com.failforward.deaddocs_backend.dto.StoryRequest;
 import com.failforward.deaddocs_backend.dto.StoryResponse;
+import com.failforward.deaddocs_backend.dto.StorySearchResult;
 import com.failforward.deaddocs_backend.entity.Story;
 import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
+import com.failforward.deaddocs_backend.service.ContentVersions;
+import com.failforward.deaddocs_backend.service.IndustryFacetService;
+import com.failforward.deaddocs_backend.service.SearchService;
+import com.failforward.deaddocs_backend.service.StoryImportService;
 import com.failforward.deaddocs_backend.service.StoryService;
+import com.failforward.deaddocs_backend.service.TrendingService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @CrossOrigin(origins = "https://fail-forward.vercel.app/")
@@ -15,28 +30,83 @@ import java.util.List;
 @RequestMapping("/api/stories")
 public class StoryController {
     private final StoryService storyService;
+    private final TrendingService trendingService;
+    private final SearchService searchService;
+    private final IndustryFacetService industryFacetService;
+    private final StoryImportService storyImportService;
+    private final ContentVersions contentVersions;
 
-    public StoryController(StoryService storyService) {
+    public StoryController(StoryService storyService, TrendingService trendingService, SearchService searchService,
+                           IndustryFacetService industryFacetService, StoryImportService storyImportService,
+                           ContentVersions contentVersions) {
         this.storyService = storyService;
+        this.trendingService = trendingService;
+        this.searchService = searchService;
+        this.industryFacetService = industryFacetService;
+        this.storyImportService = storyImportService;
+        this.contentVersions = contentVersions;
     }
 
+    /**
+     * Get a page of the story feed
+     * Pass the returned nextCursor back to fetch the following page
+     * With userId set, each story also carries likedByMe
+     * Without it the page is identical for every caller and is served pre-encoded
+     * Answers If-None-Match with 304 while the feed is unchanged
+     */
     @GetMapping
-    public ResponseEntity<List<StoryResponse>> getAllStories(){
-        List<Story> stories = storyService.getAllStories();
-        List<StoryResponse> responses = stories.stream().map(story -> {
-            StoryResponse response = new StoryResponse();
-            response.setId(story.getId());
-            response.setUserId(story.getUserId());
-            response.setFounderName(story.getFounderName());
-            response.setAnonymous(story.isAnonymous());
-            response.setStoryTitle(story.getStoryTitle());
-            response.setIndustry(story.getIndustry());
-            response.setPreviewText(story.getPreviewText());
-            response.setHelpfulVotes(story.getHelpfulVotes());
-            response.setCommentCount(story.getCommentCount());
-            return response;
-        }).toList();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<?> getStoryFeed(
+            @RequestParam(value = "sort", defaultValue = "newest") String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "userId", required = false) String userId,
+            WebRequest webRequest) {
+        FeedSort feedSort = FeedSort.fromParam(sort);
+        // Taken before rendering, so a concurrent change can only make the tag older than the body
+        String etag = contentVersions.feedETag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        if (userId == null) {
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(ConditionalGet.REVALIDATE)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(storyService.getFeedJson(feedSort, cursor, limit));
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(ConditionalGet.REVALIDATE)
+                .body(storyService.getFeed(feedSort, cursor, limit, userId));
+    }
+
+    /**
+     * Get the hottest stories by recent, time-decayed like and comment activity
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<StoryResponse>> getTrendingStories(
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(trendingService.getTrending(limit));
+    }
+
+    /**
+     * Full-text search over stories and their comments, best matches first
+     * Pass the returned nextCursor back to fetch the following page
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<StorySearchResult>> searchStories(
+            @RequestParam("q") String query,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(searchService.search(query, cursor, limit));
+    }
+
+    /**
+     * Get story counts and vote totals per industry, largest industry first
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<List<IndustryFacet>> getIndustryFacets() {
+        return ResponseEntity.ok(industryFacetService.getFacets());
     }
 
     @PostMapping
@@ -58,24 +128,33 @@ public class StoryController {
             return ResponseEntity.internalServerError().build();
         }
 
-        StoryResponse response = new StoryResponse();
-        response.setId(savedStory.getId());
-        response.setUserId(savedStory.getUserId());
-        response.setFounderName(savedStory.getFounderName());
-        response.setAnonymous(savedStory.isAnonymous());
-        response.setStoryTitle(savedStory.getStoryTitle());
-        response.setIndustry(savedStory.getIndustry());
-        response.setPreviewText(savedStory.getPreviewText());
-        response.setHelpfulVotes(savedStory.getHelpfulVotes());
-        response.setCommentCount(savedStory.getCommentCount());
-
-        return ResponseEntity.status(201).body(response);
+        return ResponseEntity.status(201).body(toResponse(savedStory));
+    }
+
+    /**
+     * Import many stories in one request
+     * Send application/x-ndjson (one story per line) or application/json (an array of stories).
+     * Valid rows are inserted; invalid ones come back as per-row errors
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BulkImportResult> bulkImport(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                       InputStream body) throws IOException {
+        boolean ndjson = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON);
+        BulkImportResult result = ndjson
+                ? storyImportService.importNdjson(body)
+                : storyImportService.importJsonArray(body);
+        return ResponseEntity.ok(result);
     }
 
+    /**
+     * Delete a story with its likes and comments
+     * Answers 202 instead of 204 when a large comment thread is still being purged in the background
+     */
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteStory(@PathVariable("id") Integer id){
-        storyService.deleteStoryById(id);
-        return ResponseEntity.status(204).build();
+    public ResponseEntity<?> deleteStory(@PathVariable("id") Integer id,
+                                         @RequestParam(value = "async", defaultValue = "false") boolean async){
+        boolean purging = storyService.deleteStoryById(id, async);
+        return ResponseEntity.status(purging ? 202 : 204).build();
     }
 
     @GetMapping("mystories/{userId}")
@@ -89,4 +168,8 @@ public class StoryController {
             Story updatedStory = storyService.updateStoryByHelpfulVotes(id, new_count);
             return  ResponseEntity.ok(updatedStory);
     }
+
+    static StoryResponse toResponse(Story story) {
+        return StoryResponse.from(story);
+    }
 }
@@ -0,0 +1,46 @@
+package com.failforward.deaddocs_backend.controller;
+
+import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
+import com.failforward.deaddocs_backend.service.StoryService;
+import com.failforward.deaddocs_backend.service.StoryUpdateBus;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Event streams of live vote and comment counts, replacing count polling
+ * Each "story-update" event carries a StoryUpdate as JSON; idle streams get a comment heartbeat.
+ */
+@CrossOrigin(origins = "https://fail-forward.vercel.app/")
+@RestController
+@RequestMapping("/api/stories")
+public class StoryEventsController {
+    private final StoryUpdateBus storyUpdateBus;
+    private final StoryService storyService;
+
+    public StoryEventsController(StoryUpdateBus storyUpdateBus, StoryService storyService) {
+        this.storyUpdateBus = storyUpdateBus;
+        this.storyService = storyService;
+    }
+
+    @GetMapping(value = "/{storyId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> storyEvents(@PathVariable Integer storyId) throws StoryNotFoundException {
+        storyService.getStoryById(storyId);
+        try {
+            return ResponseEntity.ok(storyUpdateBus.subscribeToStory(storyId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> feedEvents() {
+        try {
+            return ResponseEntity.ok(storyUpdateBus.subscribeToFeed());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package com.failforward.deaddocs_backend.controller;
 
+import com.failforward.deaddocs_backend.dto.StoryCountsResponse;
+import com.failforward.deaddocs_backend.dto.SyncJobStatus;
 import com.failforward.deaddocs_backend.entity.Story;
 import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
+import com.failforward.deaddocs_backend.service.CommentService;
+import com.failforward.deaddocs_backend.service.ContentVersions;
+import com.failforward.deaddocs_backend.service.LikeCountSyncJob;
 import com.failforward.deaddocs_backend.service.StoryLikesService;
 import com.failforward.deaddocs_backend.service.StoryService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @CrossOrigin(origins = "https://fail-forward.vercel.app/")
 @RestController
@@ -13,10 +24,18 @@ import org.springframework.web.bind.annotation.*;
 public class StoryLikesController {
     private final StoryLikesService storyLikesService;
     private final StoryService storyService;
+    private final CommentService commentService;
+    private final LikeCountSyncJob likeCountSyncJob;
+    private final ContentVersions contentVersions;
 
-    public StoryLikesController(StoryLikesService storyLikesService, StoryService storyService) {
+    public StoryLikesController(StoryLikesService storyLikesService, StoryService storyService,
+                                CommentService commentService, LikeCountSyncJob likeCountSyncJob,
+                                ContentVersions contentVersions) {
         this.storyLikesService = storyLikesService;
         this.storyService = storyService;
+        this.commentService = commentService;
+        this.likeCountSyncJob = likeCountSyncJob;
+        this.contentVersions = contentVersions;
     }
 
     @PostMapping("/{storyId}/like")
@@ -28,15 +47,9 @@ public class StoryLikesController {
                 return ResponseEntity.badRequest().body("Invalid storyId or userId");
             }
 
-            // Get current story
-            Story currentStory = storyService.getStoryById(storyId);
-            
-            // Like the story and get new count
-            int newLikeCount = storyLikesService.likeStoryAndGetNewCount(userId, storyId, currentStory.getHelpfulVotes());
-            
-            // Update the story's helpful votes count
-            Story updatedStory = storyService.updateStoryByHelpfulVotes(storyId, newLikeCount);
-            
+            // Like the story and bump the count only if a like was added, in one transaction
+            Story updatedStory = storyService.likeStory(storyId, userId);
+
             return ResponseEntity.ok(updatedStory);
         } catch (StoryNotFoundException e) {
             return ResponseEntity.notFound().build();
@@ -53,15 +66,9 @@ public class StoryLikesController {
                 return ResponseEntity.badRequest().body("Invalid storyId or userId");
             }
 
-            // Get current story
-            Story currentStory = storyService.getStoryById(storyId);
-            
-            // Unlike the story and get new count
-            int newLikeCount = storyLikesService.unlikeStoryAndGetNewCount(userId, storyId, currentStory.getHelpfulVotes());
-            
-            // Update the story's helpful votes count
-            Story updatedStory = storyService.updateStoryByHelpfulVotes(storyId, newLikeCount);
-            
+            // Unlike the story and decrement the count only if a like was removed, in one transaction
+            Story updatedStory = storyService.unlikeStory(storyId, userId);
+
             return ResponseEntity.ok(updatedStory);
         } catch (StoryNotFoundException e) {
             return ResponseEntity.notFound().build();
@@ -85,15 +92,70 @@ public class StoryLikesController {
         }
     }
 
+    /**
+     * Check which stories of a feed page the user has liked
+     * Answers for the whole page with one query instead of one request per story
+     */
+    @GetMapping("/liked")
+    public ResponseEntity<Set<Integer>> getLikedStories(@RequestParam String userId,
+                                                        @RequestParam List<Integer> storyIds) {
+        try {
+            if (userId == null || userId.trim().isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+
+            Set<Integer> liked = storyLikesService.getLikedStoryIds(userId, storyIds);
+            return ResponseEntity.ok(liked);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @GetMapping("/{storyId}/like-count")
-    public ResponseEntity<Long> getLikeCount(@PathVariable Integer storyId) {
+    public ResponseEntity<Long> getLikeCount(@PathVariable Integer storyId, WebRequest webRequest) {
         try {
             if (storyId == null) {
                 return ResponseEntity.badRequest().build();
             }
+            String etag = contentVersions.storyETag(storyId);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
             
             long likeCount = storyLikesService.getLikeCount(storyId);
-            return ResponseEntity.ok(likeCount);
+            return ResponseEntity.ok().eTag(etag).cacheControl(ConditionalGet.REVALIDATE).body(likeCount);
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Get like and comment counts for many stories in one request
+     * Each count is a single grouped query over the whole id list
+     * Answers If-None-Match with 304 while none of the stories changed
+     */
+    @GetMapping("/counts")
+    public ResponseEntity<List<StoryCountsResponse>> getCounts(@RequestParam List<Integer> storyIds,
+                                                               WebRequest webRequest) {
+        try {
+            Set<Integer> ids = new LinkedHashSet<>(storyIds);
+            String etag = contentVersions.storiesETag(ids);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+            Map<Integer, Long> likeCounts = storyLikesService.getLikeCounts(ids);
+            Map<Integer, Long> commentCounts = commentService.getCommentCounts(ids);
+
+            List<StoryCountsResponse> counts = ids.stream()
+                    .map(id -> new StoryCountsResponse(id,
+                            likeCounts.getOrDefault(id, 0L),
+                            commentCounts.getOrDefault(id, 0L)))
+                    .toList();
+            return ResponseEntity.ok().eTag(etag).cacheControl(ConditionalGet.REVALIDATE).body(counts);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -102,16 +164,21 @@ public class StoryLikesController {
     /**
      * Get accurate like count for a story
      * This endpoint ensures consistency by counting actual likes from the database
+     * Answers If-None-Match with 304 while the story's likes are unchanged
      */
     @GetMapping("/{storyId}/accurate-like-count")
-    public ResponseEntity<Integer> getAccurateLikeCount(@PathVariable Integer storyId) {
+    public ResponseEntity<Integer> getAccurateLikeCount(@PathVariable Integer storyId, WebRequest webRequest) {
         try {
             if (storyId == null) {
                 return ResponseEntity.badRequest().build();
             }
+            String etag = contentVersions.storyETag(storyId);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
             
             int accurateCount = storyLikesService.getAccurateLikeCount(storyId);
-            return ResponseEntity.ok(accurateCount);
+            return ResponseEntity.ok().eTag(etag).cacheControl(ConditionalGet.REVALIDATE).body(accurateCount);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -139,15 +206,15 @@ public class StoryLikesController {
 
     /**
      * Sync like counts for all stories
-     * This ensures database consistency across all stories
+     * Starts a background reconciliation; poll the status endpoint for progress
      */
     @PostMapping("/sync-all-like-counts")
-    public ResponseEntity<?> syncAllLikeCounts() {
-        try {
-            storyService.syncAllLikeCounts();
-            return ResponseEntity.ok().body("Successfully synced like counts for all stories");
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error syncing all like counts: " + e.getMessage());
-        }
+    public ResponseEntity<SyncJobStatus> syncAllLikeCounts() {
+        return ResponseEntity.accepted().body(likeCountSyncJob.start());
+    }
+
+    @GetMapping("/sync-all-like-counts/status")
+    public ResponseEntity<SyncJobStatus> getSyncAllLikeCountsStatus() {
+        return ResponseEntity.ok(likeCountSyncJob.getStatus());
     }
 }
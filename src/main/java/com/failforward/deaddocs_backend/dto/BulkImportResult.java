@@ -0,0 +1,24 @@
+package com.failforward.deaddocs_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BulkImportResult {
+    private final int received;
+    private final int imported;
+    private final int failed;
+    // Capped; failed holds the full count
+    private final List<RowError> errors;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        // 1-based position of the row in the request body
+        private final int row;
+        private final String message;
+    }
+}
@@ -0,0 +1,54 @@
+package com.failforward.deaddocs_backend.dto;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tables included in data exports, with the columns written for each
+ */
+public enum ExportTable {
+    STORIES("stories", "story", List.of("id", "user_id", "founder_name", "is_anonymous", "story_title",
+            "industry", "preview_text", "helpful_votes", "comment_count")),
+    COMMENTS("comments", "comment", List.of("id", "story_id", "user_id", "commenter_name", "is_anonymous",
+            "content", "created_at", "updated_at")),
+    LIKES("story_likes", "like", List.of("id", "user_id", "story_id", "liked_at"));
+
+    private final String tableName;
+    // Value of the "type" field on each NDJSON record
+    private final String recordType;
+    private final List<String> columns;
+
+    ExportTable(String tableName, String recordType, List<String> columns) {
+        this.tableName = tableName;
+        this.recordType = recordType;
+        this.columns = columns;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getRecordType() {
+        return recordType;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Parse a table request parameter: "stories", "comments" or "likes"
+     * @param value the raw parameter
+     * @return the matching table
+     */
+    public static ExportTable fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Export table is required");
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown export table: " + value);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.failforward.deaddocs_backend.dto;
+
+import java.util.Locale;
+
+public enum FeedSort {
+    NEWEST,
+    MOST_HELPFUL,
+    MOST_DISCUSSED;
+
+    /**
+     * Value the keyset cursor is built on, paired with the story id as tie-breaker
+     * @param story the last story of a page
+     * @return the sort key for this order
+     */
+    public int sortKey(StoryResponse story) {
+        return switch (this) {
+            case NEWEST -> story.getId();
+            case MOST_HELPFUL -> story.getHelpfulVotes();
+            case MOST_DISCUSSED -> story.getCommentCount();
+        };
+    }
+
+    /**
+     * Parse a sort request parameter, accepting e.g. "newest", "most-helpful" or "MOST_DISCUSSED"
+     * @param value the raw parameter
+     * @return the matching sort order
+     */
+    public static FeedSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return NEWEST;
+        }
+        try {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort order: " + value);
+        }
+    }
+}
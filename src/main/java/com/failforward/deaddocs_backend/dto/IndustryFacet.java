@@ -0,0 +1,15 @@
+package com.failforward.deaddocs_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class IndustryFacet {
+    // Normalized form, stable across spelling variants such as "FinTech" and " fintech "
+    private final String key;
+    // Spelling of the oldest story with this industry
+    private final String industry;
+    private final long storyCount;
+    private final long helpfulVotes;
+}
@@ -0,0 +1,11 @@
+package com.failforward.deaddocs_backend.dto;
+
+/**
+ * Projection for story count and vote total per industry spelling
+ */
+public interface IndustryTotal {
+    String getIndustry();
+    Long getStoryCount();
+    Long getHelpfulVotes();
+    Integer getFirstStoryId();
+}
@@ -0,0 +1,11 @@
+package com.failforward.deaddocs_backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection for a like removed with DELETE ... RETURNING
+ */
+public interface RemovedLike {
+    // Null for likes made before liked_at was recorded
+    LocalDateTime getLikedAt();
+}
@@ -0,0 +1,9 @@
+package com.failforward.deaddocs_backend.dto;
+
+/**
+ * Projection for grouped per-story counts
+ */
+public interface StoryCount {
+    Integer getStoryId();
+    Long getTotal();
+}
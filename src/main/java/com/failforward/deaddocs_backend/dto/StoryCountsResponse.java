@@ -0,0 +1,16 @@
+package com.failforward.deaddocs_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoryCountsResponse {
+    private Integer storyId;
+    private long likeCount;
+    private long commentCount;
+}
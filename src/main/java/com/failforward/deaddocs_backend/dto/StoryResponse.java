@@ -1,12 +1,16 @@
 package com.failforward.deaddocs_backend.dto;
 
+import com.failforward.deaddocs_backend.entity.Story;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Data
 @Getter
 @Setter
+@NoArgsConstructor
 public class StoryResponse {
     private Integer id;
     private String userId;
@@ -17,4 +21,36 @@ public class StoryResponse {
     private String previewText;
     private int helpfulVotes;
     private int commentCount;
+
+    // Only set when the feed is requested for a specific user
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean likedByMe;
+
+    /**
+     * Constructor used by JPQL feed projections
+     */
+    public StoryResponse(Integer id, String userId, String founderName, boolean isAnonymous, String storyTitle,
+                         String industry, String previewText, int helpfulVotes, int commentCount) {
+        this.id = id;
+        this.userId = userId;
+        this.founderName = founderName;
+        this.isAnonymous = isAnonymous;
+        this.storyTitle = storyTitle;
+        this.industry = industry;
+        this.previewText = previewText;
+        this.helpfulVotes = helpfulVotes;
+        this.commentCount = commentCount;
+    }
+
+    public StoryResponse(StoryResponse source) {
+        this(source.id, source.userId, source.founderName, source.isAnonymous, source.storyTitle,
+                source.industry, source.previewText, source.helpfulVotes, source.commentCount);
+        this.likedByMe = source.likedByMe;
+    }
+
+    public static StoryResponse from(Story story) {
+        return new StoryResponse(story.getId(), story.getUserId(), story.getFounderName(), story.isAnonymous(),
+                story.getStoryTitle(), story.getIndustry(), story.getPreviewText(), story.getHelpfulVotes(),
+                story.getCommentCount());
+    }
 }
@@ -0,0 +1,16 @@
+package com.failforward.deaddocs_backend.dto;
+
+/**
+ * Projection of a full stories row, as returned by the counter UPDATE ... RETURNING statements
+ */
+public interface StoryRow {
+    Integer getId();
+    String getUserId();
+    String getFounderName();
+    boolean isAnonymous();
+    String getStoryTitle();
+    String getIndustry();
+    String getPreviewText();
+    int getHelpfulVotes();
+    int getCommentCount();
+}
@@ -0,0 +1,9 @@
+package com.failforward.deaddocs_backend.dto;
+
+/**
+ * Projection for aggregated per-story activity scores
+ */
+public interface StoryScore {
+    Integer getStoryId();
+    Double getScore();
+}
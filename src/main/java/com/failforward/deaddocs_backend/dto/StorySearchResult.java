@@ -0,0 +1,20 @@
+package com.failforward.deaddocs_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StorySearchResult {
+    private final Integer id;
+    private final String userId;
+    private final String founderName;
+    private final boolean isAnonymous;
+    private final String storyTitle;
+    private final String industry;
+    private final int helpfulVotes;
+    private final int commentCount;
+    // HTML-escaped preview text excerpt with matched terms wrapped in <mark></mark>
+    private final String snippet;
+    private final double rank;
+}
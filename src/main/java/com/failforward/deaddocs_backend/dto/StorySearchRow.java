@@ -0,0 +1,17 @@
+package com.failforward.deaddocs_backend.dto;
+
+/**
+ * Projection for ranked full-text search hits
+ */
+public interface StorySearchRow {
+    Integer getId();
+    String getUserId();
+    String getFounderName();
+    Boolean getIsAnonymous();
+    String getStoryTitle();
+    String getIndustry();
+    Integer getHelpfulVotes();
+    Integer getCommentCount();
+    String getSnippet();
+    Double getRank();
+}
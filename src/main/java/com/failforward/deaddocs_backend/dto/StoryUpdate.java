@@ -0,0 +1,17 @@
+package com.failforward.deaddocs_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Live counter update pushed to story and feed subscribers
+ */
+@Getter
+@AllArgsConstructor
+public class StoryUpdate {
+    private final Integer storyId;
+    private final int helpfulVotes;
+    private final int commentCount;
+    // True once the story no longer exists; the counts are then zero
+    private final boolean deleted;
+}
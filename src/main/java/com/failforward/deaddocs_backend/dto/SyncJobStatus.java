@@ -0,0 +1,22 @@
+package com.failforward.deaddocs_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class SyncJobStatus {
+    public enum State { IDLE, RUNNING, COMPLETED, FAILED }
+
+    private final State state;
+    private final Instant startedAt;
+    private final Instant finishedAt;
+    private final int chunksTotal;
+    private final int chunksDone;
+    private final long idsScanned;
+    // Stories whose helpful_votes did not match story_likes and were corrected
+    private final long storiesCorrected;
+    private final String error;
+}
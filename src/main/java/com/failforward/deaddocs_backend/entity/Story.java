@@ -13,8 +13,10 @@ import lombok.Setter;
 @Setter
 @RequiredArgsConstructor
 public class Story {
+    // Pooled sequence (see V5 migration) so inserts can be JDBC-batched, which IDENTITY prevents
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stories_id_seq")
+    @SequenceGenerator(name = "stories_id_seq", sequenceName = "stories_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Integer id;
 
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Setter
 @Entity
@@ -18,4 +20,8 @@ public class StoryLike {
 
     @Column(name = "story_id", nullable = false)
     private Integer storyId;
+
+    // Set by the database default on insert, null for likes made before it was recorded
+    @Column(name = "liked_at", insertable = false, updatable = false)
+    private LocalDateTime likedAt;
 }
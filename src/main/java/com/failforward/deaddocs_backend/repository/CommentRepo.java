@@ -1,15 +1,88 @@
 package com.failforward.deaddocs_backend.repository;
 
+import com.failforward.deaddocs_backend.dto.StoryCount;
+import com.failforward.deaddocs_backend.dto.StoryScore;
 import com.failforward.deaddocs_backend.entity.Comment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CommentRepo extends JpaRepository<Comment, Long> {
     List<Comment> findByStoryIdOrderByCreatedAtDesc(Integer storyId);
-    List<Comment> findByUserId(String userId);
+    // Skips comments of deleted stories that are still waiting to be purged
+    @Query("SELECT c FROM Comment c WHERE c.userId = :userId "
+            + "AND EXISTS (SELECT 1 FROM Story s WHERE s.id = c.storyId)")
+    List<Comment> findByUserId(@Param("userId") String userId);
     long countByStoryId(Integer storyId);
-    void deleteByStoryId(Integer storyId);
+
+    // Same order as findByStoryIdOrderByCreatedAtDesc, read through a JDBC cursor;
+    // must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT c FROM Comment c WHERE c.storyId = :storyId ORDER BY c.createdAt DESC, c.id DESC")
+    Stream<Comment> streamByStoryId(@Param("storyId") Integer storyId);
+
+    // Keyset pagination on (created_at, id), served by idx_comments_story_created
+
+    @Query("SELECT c FROM Comment c WHERE c.storyId = :storyId ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPageByStoryId(@Param("storyId") Integer storyId, Limit limit);
+
+    @Query("SELECT c FROM Comment c WHERE c.storyId = :storyId "
+            + "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) "
+            + "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPageByStoryIdAfter(@Param("storyId") Integer storyId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id, Limit limit);
+
+    @Query("SELECT c.storyId AS storyId, COUNT(c) AS total FROM Comment c "
+            + "WHERE c.storyId IN :storyIds AND EXISTS (SELECT 1 FROM Story s WHERE s.id = c.storyId) "
+            + "GROUP BY c.storyId")
+    List<StoryCount> countByStoryIds(@Param("storyIds") Collection<Integer> storyIds);
+
+    /**
+     * Sum of 2^((created_at - epoch) / halfLife) per story over comments made since a cutoff
+     */
+    @Query(value = "SELECT c.story_id AS \"storyId\", "
+            + "CAST(SUM(POWER(2, EXTRACT(EPOCH FROM (c.created_at - CAST(:epoch AS timestamp))) / :halfLifeSeconds)) "
+            + "AS double precision) AS \"score\" "
+            + "FROM comments c WHERE c.created_at >= :since GROUP BY c.story_id", nativeQuery = true)
+    List<StoryScore> sumDecayedComments(@Param("since") LocalDateTime since, @Param("epoch") LocalDateTime epoch,
+                                        @Param("halfLifeSeconds") double halfLifeSeconds);
+
+    /**
+     * Delete every comment of a story in one statement, without loading them
+     * @return number of comments removed
+     */
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.storyId = :storyId")
+    int deleteByStoryId(@Param("storyId") Integer storyId);
+
+    /**
+     * Delete up to limit comments of a story, for purging very large threads in short transactions
+     * @return number of comments removed, 0 once the thread is gone
+     */
+    @Modifying
+    @Query(value = "DELETE FROM comments WHERE id IN "
+            + "(SELECT id FROM comments WHERE story_id = :storyId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByStoryId(@Param("storyId") Integer storyId, @Param("limit") int limit);
+
+    /**
+     * Delete up to limit comments whose story no longer exists
+     * @return number of comments removed
+     */
+    @Modifying
+    @Query(value = "DELETE FROM comments WHERE id IN (SELECT c.id FROM comments c "
+            + "WHERE NOT EXISTS (SELECT 1 FROM stories s WHERE s.id = c.story_id) LIMIT :limit)", nativeQuery = true)
+    int deleteOrphanChunk(@Param("limit") int limit);
 } 
\ No newline at end of file
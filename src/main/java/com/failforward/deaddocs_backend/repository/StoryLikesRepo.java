@@ -1,14 +1,73 @@
 package com.failforward.deaddocs_backend.repository;
 
+import com.failforward.deaddocs_backend.dto.RemovedLike;
+import com.failforward.deaddocs_backend.dto.StoryCount;
+import com.failforward.deaddocs_backend.dto.StoryScore;
 import com.failforward.deaddocs_backend.entity.StoryLike;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StoryLikesRepo extends JpaRepository<StoryLike, Long> {
     Optional<StoryLike> findByUserIdAndStoryId(String userId, Integer storyId);
     long countByStoryId(Integer storyId);
-    void deleteByUserIdAndStoryId(String userId, Integer storyId);
+
+    @Query("SELECT l.storyId AS storyId, COUNT(l) AS total FROM StoryLike l "
+            + "WHERE l.storyId IN :storyIds GROUP BY l.storyId")
+    List<StoryCount> countByStoryIds(@Param("storyIds") Collection<Integer> storyIds);
+
+    @Query("SELECT l.storyId FROM StoryLike l WHERE l.userId = :userId AND l.storyId IN :storyIds")
+    List<Integer> findLikedStoryIds(@Param("userId") String userId, @Param("storyIds") Collection<Integer> storyIds);
+
+    /**
+     * Insert a like unless the (user, story) pair already exists
+     * @return 1 if a row was inserted, 0 if the user had already liked the story
+     */
+    @Modifying
+    @Query(value = "INSERT INTO story_likes (user_id, story_id) VALUES (:userId, :storyId) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") String userId, @Param("storyId") Integer storyId);
+
+    /**
+     * Delete a like without loading it first
+     * @return the removed like with its original time, empty if the user had not liked the story
+     */
+    @Query(value = "DELETE FROM story_likes WHERE user_id = :userId AND story_id = :storyId "
+            + "RETURNING liked_at AS \"likedAt\"", nativeQuery = true)
+    Optional<RemovedLike> deleteLike(@Param("userId") String userId, @Param("storyId") Integer storyId);
+
+    /**
+     * Delete every like of a story in one statement
+     * @return number of likes removed
+     */
+    @Modifying
+    @Query("DELETE FROM StoryLike l WHERE l.storyId = :storyId")
+    int deleteByStoryId(@Param("storyId") Integer storyId);
+
+    /**
+     * Delete up to limit likes whose story no longer exists
+     * @return number of likes removed
+     */
+    @Modifying
+    @Query(value = "DELETE FROM story_likes WHERE id IN (SELECT l.id FROM story_likes l "
+            + "WHERE NOT EXISTS (SELECT 1 FROM stories s WHERE s.id = l.story_id) LIMIT :limit)", nativeQuery = true)
+    int deleteOrphanChunk(@Param("limit") int limit);
+
+    /**
+     * Sum of 2^((liked_at - epoch) / halfLife) per story over likes made since a cutoff
+     */
+    @Query(value = "SELECT l.story_id AS \"storyId\", "
+            + "CAST(SUM(POWER(2, EXTRACT(EPOCH FROM (l.liked_at - CAST(:epoch AS timestamp))) / :halfLifeSeconds)) "
+            + "AS double precision) AS \"score\" "
+            + "FROM story_likes l WHERE l.liked_at >= :since GROUP BY l.story_id", nativeQuery = true)
+    List<StoryScore> sumDecayedLikes(@Param("since") LocalDateTime since, @Param("epoch") LocalDateTime epoch,
+                                     @Param("halfLifeSeconds") double halfLifeSeconds);
 }
@@ -1,16 +1,130 @@
 package com.failforward.deaddocs_backend.repository;
 
+import com.failforward.deaddocs_backend.dto.IndustryTotal;
+import com.failforward.deaddocs_backend.dto.StoryResponse;
+import com.failforward.deaddocs_backend.dto.StoryRow;
+import com.failforward.deaddocs_backend.dto.StorySearchRow;
 import com.failforward.deaddocs_backend.entity.Story;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface StoryRepo extends JpaRepository<Story, Integer> {
+    String FEED_SELECT = "SELECT new com.failforward.deaddocs_backend.dto.StoryResponse("
+            + "s.id, s.userId, s.founderName, s.isAnonymous, s.storyTitle, s.industry, s.previewText, "
+            + "s.helpfulVotes, s.commentCount) FROM Story s ";
+    String RETURNING_ROW = "RETURNING id, user_id AS \"userId\", founder_name AS \"founderName\", "
+            + "is_anonymous AS \"anonymous\", story_title AS \"storyTitle\", industry, "
+            + "preview_text AS \"previewText\", helpful_votes AS \"helpfulVotes\", comment_count AS \"commentCount\"";
+
     Story getStoriesByUserId(String userId);
 
-    void deleteStoryById(Integer id);
+    /**
+     * Delete a story row without loading it first
+     * Clears the persistence context so a previously loaded instance is not served afterwards
+     * @return 1 if the story existed, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Story s WHERE s.id = :id")
+    int deleteStoryById(@Param("id") Integer id);
+
+    @Query(FEED_SELECT + "WHERE s.id = :id")
+    Optional<StoryResponse> findFeedRowById(@Param("id") Integer id);
 
     List<Story> findAllByUserId(String userId);
+
+    // Atomic counter updates: a single statement applies the delta and returns the updated row
+
+    @Query(value = "UPDATE stories SET helpful_votes = GREATEST(helpful_votes + :delta, 0) "
+            + "WHERE id = :id " + RETURNING_ROW, nativeQuery = true)
+    Optional<StoryRow> adjustHelpfulVotes(@Param("id") Integer id, @Param("delta") int delta);
+
+    @Query(value = "UPDATE stories SET comment_count = GREATEST(comment_count + :delta, 0) "
+            + "WHERE id = :id " + RETURNING_ROW, nativeQuery = true)
+    Optional<StoryRow> adjustCommentCount(@Param("id") Integer id, @Param("delta") int delta);
+
+    // Keyset feed queries: each page continues strictly after the (sort key, id) of the previous one.
+    // They load the top of each order into the feed read model and serve pages beyond it
+
+    @Query(FEED_SELECT + "ORDER BY s.id DESC")
+    List<StoryResponse> findFeedNewest(Limit limit);
+
+    @Query(FEED_SELECT + "WHERE s.id < :id ORDER BY s.id DESC")
+    List<StoryResponse> findFeedNewestAfter(@Param("id") Integer id, Limit limit);
+
+    @Query(FEED_SELECT + "ORDER BY s.helpfulVotes DESC, s.id DESC")
+    List<StoryResponse> findFeedMostHelpful(Limit limit);
+
+    @Query(FEED_SELECT + "WHERE s.helpfulVotes < :votes OR (s.helpfulVotes = :votes AND s.id < :id) "
+            + "ORDER BY s.helpfulVotes DESC, s.id DESC")
+    List<StoryResponse> findFeedMostHelpfulAfter(@Param("votes") int votes, @Param("id") Integer id, Limit limit);
+
+    @Query(FEED_SELECT + "ORDER BY s.commentCount DESC, s.id DESC")
+    List<StoryResponse> findFeedMostDiscussed(Limit limit);
+
+    @Query(FEED_SELECT + "WHERE s.commentCount < :comments OR (s.commentCount = :comments AND s.id < :id) "
+            + "ORDER BY s.commentCount DESC, s.id DESC")
+    List<StoryResponse> findFeedMostDiscussedAfter(@Param("comments") int comments, @Param("id") Integer id, Limit limit);
+
+    @Query(FEED_SELECT + "WHERE s.id IN :ids")
+    List<StoryResponse> findFeedRowsByIds(@Param("ids") Collection<Integer> ids);
+
+    // One row per distinct spelling; spelling variants are merged by the caller
+    @Query("SELECT s.industry AS industry, COUNT(s) AS storyCount, SUM(s.helpfulVotes) AS helpfulVotes, "
+            + "MIN(s.id) AS firstStoryId FROM Story s GROUP BY s.industry")
+    List<IndustryTotal> sumByIndustry();
+
+    @Query("SELECT MIN(s.id) FROM Story s")
+    Integer findMinId();
+
+    @Query("SELECT MAX(s.id) FROM Story s")
+    Integer findMaxId();
+
+    /**
+     * Set helpful_votes to the story_likes count for every story in an id range, in one statement
+     * Only rows whose stored count has drifted are written
+     * @return number of stories corrected
+     */
+    @Modifying
+    @Query(value = "UPDATE stories s SET helpful_votes = c.cnt FROM ("
+            + "SELECT st.id, COUNT(l.id) AS cnt FROM stories st "
+            + "LEFT JOIN story_likes l ON l.story_id = st.id "
+            + "WHERE st.id BETWEEN :fromId AND :toId GROUP BY st.id) c "
+            + "WHERE s.id = c.id AND s.helpful_votes IS DISTINCT FROM c.cnt", nativeQuery = true)
+    int reconcileHelpfulVotes(@Param("fromId") int fromId, @Param("toId") int toId);
+
+    /**
+     * Ranked full-text search over story title, industry and preview text, and comment content
+     * A story's rank is its own ts_rank plus half the rank of its best matching comment.
+     * Snippets are only computed for the returned page.
+     * @param query search text in websearch syntax: quoted phrases, OR, -excluded
+     */
+    @Query(value = "WITH q AS (SELECT websearch_to_tsquery('english', :query) AS tsq), "
+            + "hits AS ("
+            + "SELECT s.id, ts_rank(s.search_vector, q.tsq) AS rank FROM stories s, q WHERE s.search_vector @@ q.tsq "
+            + "UNION ALL "
+            + "SELECT c.story_id, MAX(ts_rank(c.search_vector, q.tsq)) * 0.5 FROM comments c, q "
+            + "WHERE c.search_vector @@ q.tsq GROUP BY c.story_id), "
+            + "ranked AS (SELECT id, SUM(rank) AS rank FROM hits GROUP BY id "
+            + "ORDER BY SUM(rank) DESC, id DESC LIMIT :limit OFFSET :offset) "
+            + "SELECT s.id AS \"id\", s.user_id AS \"userId\", s.founder_name AS \"founderName\", "
+            + "s.is_anonymous AS \"isAnonymous\", s.story_title AS \"storyTitle\", s.industry AS \"industry\", "
+            + "s.helpful_votes AS \"helpfulVotes\", s.comment_count AS \"commentCount\", "
+            // Matches are delimited with control characters stripped from the text, so the caller can
+            // HTML-escape the snippet before turning them into tags
+            + "ts_headline('english', translate(coalesce(s.preview_text, ''), chr(2) || chr(3), ''), q.tsq, "
+            + "'StartSel=' || chr(2) || ', StopSel=' || chr(3) || ', MaxFragments=2, MaxWords=25, MinWords=8') "
+            + "AS \"snippet\", "
+            + "CAST(r.rank AS double precision) AS \"rank\" "
+            + "FROM ranked r JOIN stories s ON s.id = r.id CROSS JOIN q "
+            + "ORDER BY r.rank DESC, r.id DESC", nativeQuery = true)
+    List<StorySearchRow> search(@Param("query") String query, @Param("limit") int limit, @Param("offset") int offset);
 }
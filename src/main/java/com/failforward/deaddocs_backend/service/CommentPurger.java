@@ -0,0 +1,126 @@
+package com.failforward.deaddocs_backend.service;
+
+import com.failforward.deaddocs_backend.repository.CommentRepo;
+import com.failforward.deaddocs_backend.repository.StoryLikesRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.function.IntSupplier;
+
+/**
+ * Removes the comments of deleted stories
+ * Small threads go in one set-based DELETE inside the caller's transaction. Threads above
+ * app.stories.purge.async-threshold are purged on the background executor after the story
+ * delete commits, one chunk per transaction, so no single transaction holds locks on them all.
+ * A periodic sweep also removes comments and likes whose story no longer exists, in chunks too.
+ * Until the purge finishes, CommentService hides comments whose story is gone.
+ */
+@Component
+public class CommentPurger {
+    private static final Logger log = LoggerFactory.getLogger(CommentPurger.class);
+
+    private final CommentRepo commentRepo;
+    private final StoryLikesRepo storyLikesRepo;
+    private final ContentVersions contentVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int asyncThreshold;
+    private final int chunkSize;
+
+    public CommentPurger(CommentRepo commentRepo, StoryLikesRepo storyLikesRepo,
+                         ContentVersions contentVersions, TransactionTemplate transactionTemplate,
+                         @Qualifier("backgroundExecutor") ExecutorService executor,
+                         @Value("${app.stories.purge.async-threshold:10000}") int asyncThreshold,
+                         @Value("${app.stories.purge.chunk-size:5000}") int chunkSize) {
+        this.commentRepo = commentRepo;
+        this.storyLikesRepo = storyLikesRepo;
+        this.contentVersions = contentVersions;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.asyncThreshold = asyncThreshold;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Delete the comments of a story that is being deleted in the current transaction
+     * @param storyId the story ID
+     * @param commentCount the story's comment count, used to pick the mode
+     * @param forceAsync purge in the background regardless of size
+     * @return true if the comments will be purged in the background after commit
+     */
+    public boolean deleteComments(Integer storyId, int commentCount, boolean forceAsync) {
+        if (!forceAsync && commentCount <= asyncThreshold) {
+            commentRepo.deleteByStoryId(storyId);
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    purgeAsync(storyId);
+                }
+            });
+        } else {
+            purgeAsync(storyId);
+        }
+        return true;
+    }
+
+    /**
+     * Delete all comments of a story chunk by chunk, each chunk in its own transaction
+     * The story's ETag moves once the last chunk commits.
+     * @return number of comments removed
+     */
+    public long purge(Integer storyId) {
+        long removed = deleteInChunks(() -> commentRepo.deleteChunkByStoryId(storyId, chunkSize));
+        contentVersions.storyChanged(storyId);
+        return removed;
+    }
+
+    /**
+     * Remove comments and likes left behind by stories deleted without cascading
+     */
+    @Scheduled(fixedDelayString = "${app.stories.purge.orphan-sweep-interval:3600000}", initialDelay = 60000)
+    public void sweepOrphans() {
+        try {
+            deleteInChunks(() -> storyLikesRepo.deleteOrphanChunk(chunkSize));
+            deleteInChunks(() -> commentRepo.deleteOrphanChunk(chunkSize));
+        } catch (RuntimeException e) {
+            log.error("Error sweeping orphaned comments and likes", e);
+        }
+    }
+
+    /**
+     * Run a chunked DELETE, each chunk in its own transaction, until a chunk comes back short
+     * @return number of rows removed
+     */
+    private long deleteInChunks(IntSupplier deleteChunk) {
+        long removed = 0;
+        int deleted;
+        do {
+            Integer count = transactionTemplate.execute(status -> deleteChunk.getAsInt());
+            deleted = count == null ? 0 : count;
+            removed += deleted;
+        } while (deleted == chunkSize);
+        return removed;
+    }
+
+    private void purgeAsync(Integer storyId) {
+        executor.execute(() -> {
+            try {
+                purge(storyId);
+            } catch (RuntimeException e) {
+                // Whatever is left is picked up by the next orphan sweep
+                log.error("Error purging comments for story {}", storyId, e);
+            }
+        });
+    }
+}
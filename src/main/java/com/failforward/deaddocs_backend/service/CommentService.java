@@ -2,25 +2,42 @@ package com.failforward.deaddocs_backend.service;
 
 import com.failforward.deaddocs_backend.dto.CommentRequest;
 import com.failforward.deaddocs_backend.dto.CommentResponse;
+import com.failforward.deaddocs_backend.dto.CursorPage;
+import com.failforward.deaddocs_backend.dto.StoryCount;
 import com.failforward.deaddocs_backend.entity.Comment;
-import com.failforward.deaddocs_backend.entity.Story;
 import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
 import com.failforward.deaddocs_backend.repository.CommentRepo;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class CommentService {
+    private static final Logger log = LoggerFactory.getLogger(CommentService.class);
+
     private final CommentRepo commentRepo;
     private final StoryService storyService;
+    private final EntityManager entityManager;
 
-    public CommentService(CommentRepo commentRepo, StoryService storyService) {
+    public CommentService(CommentRepo commentRepo, StoryService storyService, EntityManager entityManager) {
         this.commentRepo = commentRepo;
         this.storyService = storyService;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -46,7 +63,7 @@ public class CommentService {
         }
 
         // Verify story exists
-        Story story = storyService.getStoryById(commentRequest.getStoryId());
+        storyService.getStoryById(commentRequest.getStoryId());
 
         // Create comment
         Comment comment = new Comment();
@@ -66,7 +83,7 @@ public class CommentService {
         Comment savedComment = commentRepo.save(comment);
 
         // Update story comment count
-        updateStoryCommentCount(commentRequest.getStoryId());
+        updateStoryCommentCount(commentRequest.getStoryId(), 1, savedComment.getCreatedAt());
 
         return convertToResponse(savedComment);
     }
@@ -81,17 +98,88 @@ public class CommentService {
             throw new IllegalArgumentException("Story ID cannot be null");
         }
 
+        if (!storyExists(storyId)) {
+            return List.of();
+        }
         List<Comment> comments = commentRepo.findByStoryIdOrderByCreatedAtDesc(storyId);
         return comments.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get one page of a story's comments, newest first, using keyset pagination
+     * @param storyId the story ID
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit requested page size, capped at StoryService.MAX_PAGE_SIZE
+     * @return the page and the cursor for the next one
+     */
+    public CursorPage<CommentResponse> getCommentPage(Integer storyId, String cursor, int limit) {
+        if (storyId == null) {
+            throw new IllegalArgumentException("Story ID cannot be null");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        int pageSize = Math.min(limit, StoryService.MAX_PAGE_SIZE);
+        Limit fetch = Limit.of(pageSize + 1);
+        if (!storyExists(storyId)) {
+            return new CursorPage<>(List.of(), null, false);
+        }
+
+        List<Comment> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = commentRepo.findPageByStoryId(storyId, fetch);
+        } else {
+            String[] parts = CursorCodec.decode(cursor, 2);
+            LocalDateTime createdAt;
+            try {
+                createdAt = LocalDateTime.parse(parts[0]);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            rows = commentRepo.findPageByStoryIdAfter(storyId, createdAt, Long.parseLong(parts[1]), fetch);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Comment> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Comment last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPage<>(page.stream().map(this::convertToResponse).toList(), nextCursor, hasMore);
+    }
+
+    /**
+     * Stream all comments for a story, newest first, without materializing the full list
+     * Rows come off a JDBC cursor and are detached as soon as they are handed to the sink
+     * @param storyId the story ID
+     * @param sink receives each comment in order
+     */
+    @Transactional(readOnly = true)
+    public void streamCommentsByStoryId(Integer storyId, Consumer<CommentResponse> sink) {
+        if (storyId == null) {
+            throw new IllegalArgumentException("Story ID cannot be null");
+        }
+
+        if (!storyExists(storyId)) {
+            return;
+        }
+        try (Stream<Comment> comments = commentRepo.streamByStoryId(storyId)) {
+            comments.forEach(comment -> {
+                sink.accept(convertToResponse(comment));
+                entityManager.detach(comment);
+            });
+        }
+    }
+
     /**
      * Get comments by user ID
      * @param userId the user ID
      * @return list of comment responses
      */
+    @Transactional(readOnly = true)
     public List<CommentResponse> getCommentsByUserId(String userId) {
         if (userId == null) {
             throw new IllegalArgumentException("User ID cannot be null");
@@ -124,8 +212,8 @@ public class CommentService {
                     Integer storyId = comment.getStoryId();
                     commentRepo.delete(comment);
                     
-                    // Update story comment count
-                    updateStoryCommentCount(storyId);
+                    // Update story comment count, taking back the activity at the time it was written
+                    updateStoryCommentCount(storyId, -1, comment.getCreatedAt());
                     return true;
                 })
                 .orElse(false);
@@ -137,25 +225,55 @@ public class CommentService {
      * @return the comment count
      */
     public long getCommentCount(Integer storyId) {
-        if (storyId == null) {
+        if (storyId == null || !storyExists(storyId)) {
             return 0;
         }
         return commentRepo.countByStoryId(storyId);
     }
 
     /**
-     * Update story comment count
+     * Get comment counts for many stories with one grouped query
+     * @param storyIds the story IDs, at most StoryLikesService.MAX_BATCH_SIZE
+     * @return comment count per story; stories without comments are absent
+     */
+    public Map<Integer, Long> getCommentCounts(Collection<Integer> storyIds) {
+        if (storyIds == null || storyIds.isEmpty()) {
+            return Map.of();
+        }
+        if (storyIds.size() > StoryLikesService.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Too many story IDs (max " + StoryLikesService.MAX_BATCH_SIZE + ")");
+        }
+        Map<Integer, Long> counts = new HashMap<>();
+        for (StoryCount count : commentRepo.countByStoryIds(new HashSet<>(storyIds))) {
+            counts.put(count.getStoryId(), count.getTotal());
+        }
+        return counts;
+    }
+
+    /**
+     * Comments of a deleted story stay in the table until its background purge finishes,
+     * so story-scoped reads check the story first (usually a story cache hit)
+     */
+    private boolean storyExists(Integer storyId) {
+        try {
+            storyService.getStoryById(storyId);
+            return true;
+        } catch (StoryNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Update story comment count with an atomic increment/decrement
      * @param storyId the story ID
+     * @param delta the change in comment count
      */
-    private void updateStoryCommentCount(Integer storyId) {
+    private void updateStoryCommentCount(Integer storyId, int delta, LocalDateTime writtenAt) {
         try {
-            long commentCount = getCommentCount(storyId);
-            Story story = storyService.getStoryById(storyId);
-            story.setCommentCount((int) commentCount);
-            storyService.addStory(story);
-        } catch (Exception e) {
+            storyService.adjustCommentCount(storyId, delta, writtenAt);
+        } catch (StoryNotFoundException e) {
             // Log error but don't fail the comment operation
-            System.err.println("Error updating comment count for story " + storyId + ": " + e.getMessage());
+            log.warn("Error updating comment count for story {}: {}", storyId, e.getMessage());
         }
     }
 
@@ -164,7 +282,7 @@ public class CommentService {
      * @param comment the comment entity
      * @return the comment response
      */
-    private CommentResponse convertToResponse(Comment comment) {
+    CommentResponse convertToResponse(Comment comment) {
         CommentResponse response = new CommentResponse();
         response.setId(comment.getId());
         response.setStoryId(comment.getStoryId());
@@ -0,0 +1,88 @@
+package com.failforward.deaddocs_backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters behind the strong ETags of feed, comment and count reads
+ * Every committed story change bumps that story's version, so a conditional GET can be answered
+ * with 304 from memory. The feed uses the feed read model's own version, since that is exactly
+ * what the page is rendered from. Tags embed a boot epoch because counters restart with the
+ * process. Writes made through another instance never reach these counters, so per-story tags
+ * also roll over every app.etag.max-staleness to bound how long such a change can go unseen.
+ */
+@Component
+public class ContentVersions {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final FeedReadModel feedReadModel;
+    private final ConcurrentMap<Integer, Long> storyVersions = new ConcurrentHashMap<>();
+    // Bumped when many stories change at once
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final long windowMillis;
+
+    public ContentVersions(FeedReadModel feedReadModel,
+                           @Value("${app.etag.max-staleness:5m}") Duration maxStaleness) {
+        this.feedReadModel = feedReadModel;
+        this.windowMillis = Math.max(1, maxStaleness.toMillis());
+    }
+
+    public String feedETag() {
+        return tag("f", Long.toString(feedReadModel.getVersion()));
+    }
+
+    /**
+     * ETag for reads scoped to one story: its comments and counts
+     */
+    public String storyETag(Integer storyId) {
+        return tag("s", globalVersion.get() + "." + version(storyId) + "." + window());
+    }
+
+    /**
+     * ETag for reads covering several stories at once, in the given order
+     */
+    public String storiesETag(Collection<Integer> storyIds) {
+        long hash = 17;
+        for (Integer id : storyIds) {
+            hash = 31 * hash + (id == null ? 0 : id);
+            hash = 31 * hash + version(id);
+        }
+        return tag("m", globalVersion.get() + "." + Long.toString(hash, 36) + "." + window());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoryChanged(StoryChangedEvent event) {
+        if (event.getType() == StoryChangedEvent.Type.RELOADED) {
+            globalVersion.incrementAndGet();
+        } else if (event.getStoryId() != null) {
+            storyChanged(event.getStoryId());
+        }
+    }
+
+    /**
+     * Bump a story's version for a change committed outside StoryService
+     * Deleted stories keep their entry, and the background comment purge bumps it again when
+     * it finishes, so the thread read after the purge never carries a tag handed out before it.
+     */
+    public void storyChanged(Integer storyId) {
+        storyVersions.merge(storyId, 1L, Long::sum);
+    }
+
+    private long version(Integer storyId) {
+        return storyId == null ? 0 : storyVersions.getOrDefault(storyId, 0L);
+    }
+
+    private long window() {
+        return System.currentTimeMillis() / windowMillis;
+    }
+
+    private String tag(String kind, String version) {
+        return "\"" + kind + "-" + epoch + "-" + version + "\"";
+    }
+}
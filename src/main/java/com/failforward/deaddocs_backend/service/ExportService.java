@@ -0,0 +1,254 @@
+package com.failforward.deaddocs_backend.service;
+
+import com.failforward.deaddocs_backend.dto.ExportFormat;
+import com.failforward.deaddocs_backend.dto.ExportTable;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams stories, comments and likes out as gzip-compressed NDJSON or CSV
+ * Each table is read with a server-side cursor (fixed fetch size inside a read-only transaction)
+ * and every row is written as soon as it is fetched, so memory use does not grow with table size.
+ * The transaction is REPEATABLE READ, so every table of one export is read from the same snapshot
+ * and no comment or like refers to a story missing from it.
+ */
+@Service
+public class ExportService {
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean scheduledEnabled;
+    private final Path directory;
+    private final ExportFormat scheduledFormat;
+    private final Semaphore slots;
+
+    public ExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${app.export.fetch-size:1000}") int fetchSize,
+                         @Value("${app.export.enabled:false}") boolean scheduledEnabled,
+                         @Value("${app.export.directory:exports}") String directory,
+                         @Value("${app.export.format:ndjson}") String scheduledFormat,
+                         @Value("${app.export.max-concurrent:2}") int maxConcurrent) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // The Postgres driver only streams with a cursor when autocommit is off
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.objectMapper = objectMapper;
+        this.scheduledEnabled = scheduledEnabled;
+        this.directory = Path.of(directory);
+        this.scheduledFormat = ExportFormat.fromParam(scheduledFormat);
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Claim one of the app.export.max-concurrent slots for a requested export
+     * Each export holds a connection and a transaction until the last row is written
+     * @return false if every slot is taken
+     */
+    public boolean tryAcquireSlot() {
+        return slots.tryAcquire();
+    }
+
+    public void releaseSlot() {
+        slots.release();
+    }
+
+    /**
+     * Write a gzip-compressed export of the given tables
+     * NDJSON records carry a "type" field, so several tables can share one stream;
+     * CSV has a single header row and therefore takes exactly one table
+     * @param tables tables to export, in order
+     * @param format output format
+     * @param out destination, left open
+     */
+    public void export(Collection<ExportTable> tables, ExportFormat format, OutputStream out) throws IOException {
+        if (tables.isEmpty()) {
+            throw new IllegalArgumentException("At least one table is required");
+        }
+        if (format == ExportFormat.CSV && tables.size() > 1) {
+            throw new IllegalArgumentException("CSV exports take exactly one table");
+        }
+
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (ExportTable table : tables) {
+                    if (format == ExportFormat.CSV) {
+                        writeCsv(table, writer);
+                    } else {
+                        writeNdjson(table, writer);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        gzip.finish();
+    }
+
+    /**
+     * Nightly export of every table to app.export.directory, when app.export.enabled is set
+     */
+    @Scheduled(cron = "${app.export.cron:0 0 3 * * *}")
+    public void scheduledExport() {
+        if (!scheduledEnabled) {
+            return;
+        }
+        try {
+            exportToFiles(scheduledFormat);
+        } catch (IOException | RuntimeException e) {
+            log.error("Error running scheduled export", e);
+        }
+    }
+
+    /**
+     * Export each table to its own dated file, e.g. stories-2024-05-01.ndjson.gz
+     * Files are written under a temporary name and moved into place when complete.
+     * All files are read in one transaction, so together they form one consistent snapshot.
+     * @return the files written
+     */
+    public List<Path> exportToFiles(ExportFormat format) throws IOException {
+        Files.createDirectories(directory);
+        LocalDate date = LocalDate.now();
+        List<Path> written = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (ExportTable table : ExportTable.values()) {
+                    try {
+                        written.add(exportToFile(table, format, date));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return written;
+    }
+
+    private Path exportToFile(ExportTable table, ExportFormat format, LocalDate date) throws IOException {
+        String name = table.getTableName() + "-" + date + "." + format.getExtension() + ".gz";
+        Path target = directory.resolve(name);
+        Path partial = directory.resolve(name + ".partial");
+        try (OutputStream out = Files.newOutputStream(partial)) {
+            export(EnumSet.of(table), format, out);
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    private void writeNdjson(ExportTable table, Writer writer) {
+        try {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            AtomicLong rows = new AtomicLong();
+            jdbcTemplate.query(selectAll(table), (RowCallbackHandler) rs -> {
+                try {
+                    rows.incrementAndGet();
+                    generator.writeStartObject();
+                    generator.writeStringField("type", table.getRecordType());
+                    List<String> columns = table.getColumns();
+                    for (int i = 0; i < columns.size(); i++) {
+                        generator.writeFieldName(columns.get(i));
+                        generator.writeObject(exportValue(rs, i + 1));
+                    }
+                    generator.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+            if (rows.get() > 0) {
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsv(ExportTable table, Writer writer) {
+        try {
+            writer.write(String.join(",", table.getColumns()));
+            writer.write('\n');
+            int columnCount = table.getColumns().size();
+            jdbcTemplate.query(selectAll(table), (RowCallbackHandler) rs -> {
+                try {
+                    for (int i = 1; i <= columnCount; i++) {
+                        if (i > 1) {
+                            writer.write(',');
+                        }
+                        Object value = exportValue(rs, i);
+                        if (value != null) {
+                            writer.write(csvField(value.toString()));
+                        }
+                    }
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String selectAll(ExportTable table) {
+        return "SELECT " + String.join(", ", table.getColumns()) + " FROM " + table.getTableName() + " ORDER BY id";
+    }
+
+    private static Object exportValue(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        // ISO-8601 local date-time, the same shape the API uses for createdAt
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString() : value;
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,407 @@
+package com.failforward.deaddocs_backend.service;
+
+import com.failforward.deaddocs_backend.dto.FeedSort;
+import com.failforward.deaddocs_backend.dto.StoryResponse;
+import com.failforward.deaddocs_backend.repository.StoryRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Denormalized in-memory copy of the top of the story feed
+ * Holds one compact StoryResponse per story plus an ordered index per FeedSort, so the
+ * first pages of every order are served without querying or materializing Story entities.
+ * Only the first window-size stories of each order are loaded; pages past that window,
+ * and every page until the first load completes, come from the keyset queries instead.
+ * Loaded in the background on first use, kept current from committed StoryChangedEvents,
+ * and reloaded on a fixed interval to pick up writes made by other instances. Events
+ * committed while a reload reads the table are replayed onto the fresh copy.
+ * Rendered anonymous pages are cached as JSON bytes and evicted only when a change
+ * touches the key range they cover.
+ */
+@Component
+public class FeedReadModel extends StoryReadModel<FeedReadModel.Snapshot> {
+    private final StoryRepo storyRepo;
+    private final int windowSize;
+    private final Cache<String, CachedPage> pageCache;
+    private final AtomicLong version = new AtomicLong();
+
+    // Guarded by lock; entries are never mutated once stored
+    private Map<Integer, StoryResponse> stories = new HashMap<>();
+    private Map<FeedSort, NavigableSet<FeedKey>> indexes = emptyIndexes();
+    // Last loaded key per order; every story ahead of it is in the model. Absent when the whole table fit
+    private Map<FeedSort, FeedKey> boundaries = new EnumMap<>(FeedSort.class);
+
+    public FeedReadModel(StoryRepo storyRepo, MeterRegistry meterRegistry,
+                         @Qualifier("backgroundExecutor") ExecutorService executor,
+                         @Value("${app.feed.read-model.window-size:2000}") int windowSize,
+                         @Value("${app.feed.page-cache.maximum-size:1000}") long pageCacheSize) {
+        super(executor);
+        this.storyRepo = storyRepo;
+        this.windowSize = windowSize;
+        this.pageCache = Caffeine.newBuilder()
+                .maximumSize(pageCacheSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pageCache, "feed-pages");
+    }
+
+    /**
+     * Read part of the feed in sort order
+     * @param sort the feed order
+     * @param afterKey sort key of the last story already returned, or null from the top
+     * @param afterId id of the last story already returned, or null from the top
+     * @param count maximum number of stories to return
+     * @return copies of the stories, safe for the caller to modify
+     */
+    public List<StoryResponse> page(FeedSort sort, Integer afterKey, Integer afterId, int count) {
+        List<StoryResponse> page = pageFromModel(sort, afterKey, afterId, count);
+        return page != null ? page : pageFromDatabase(sort, afterKey, afterId, count);
+    }
+
+    /**
+     * Look up stories by id, keeping the given order and skipping unknown ids
+     * Stories outside the loaded window are read from the stories table
+     * @return copies of the stories, safe for the caller to modify
+     */
+    public List<StoryResponse> get(List<Integer> ids) {
+        ensureLoaded();
+        Map<Integer, StoryResponse> found = new HashMap<>(ids.size() * 2);
+        lock.readLock().lock();
+        try {
+            for (Integer id : ids) {
+                StoryResponse story = stories.get(id);
+                if (story != null) {
+                    found.put(id, new StoryResponse(story));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (found.size() < ids.size()) {
+            Set<Integer> missing = new HashSet<>(ids);
+            missing.removeAll(found.keySet());
+            storyRepo.findFeedRowsByIds(missing).forEach(story -> found.put(story.getId(), story));
+        }
+
+        List<StoryResponse> ordered = new ArrayList<>(found.size());
+        for (Integer id : ids) {
+            StoryResponse story = found.get(id);
+            if (story != null) {
+                ordered.add(story);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Current model version, incremented on every applied change and reload
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Return a rendered page from the cache, rendering and caching it on a miss
+     * Only pages served from the model are cached, since only those are kept current
+     * @param key identifies the page, e.g. sort, cursor and size
+     * @param count stories to read, one more than the page size so the render can tell whether more follow
+     * @param render produces the JSON for the stories read
+     */
+    public byte[] cachedPage(String key, FeedSort sort, Integer afterKey, Integer afterId, int count,
+                             Function<List<StoryResponse>, byte[]> render) {
+        CachedPage cached = pageCache.getIfPresent(key);
+        if (cached != null) {
+            return cached.json();
+        }
+        long renderedAt = version.get();
+        List<StoryResponse> rows = pageFromModel(sort, afterKey, afterId, count);
+        if (rows == null) {
+            return render.apply(pageFromDatabase(sort, afterKey, afterId, count));
+        }
+        byte[] json = render.apply(rows);
+
+        FeedKey from = afterId == null ? null : new FeedKey(afterKey, afterId);
+        // A full read means the page ends at its last shown story; a short one runs to the end of the feed
+        FeedKey to = rows.size() == count ? keyOf(sort, rows.get(count - 2)) : null;
+        // A change applied while rendering has already run its eviction, so do not store the stale page
+        if (version.get() == renderedAt) {
+            pageCache.put(key, new CachedPage(sort, from, to, json));
+        }
+        return json;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoryChanged(StoryChangedEvent event) {
+        if (event.getType() == StoryChangedEvent.Type.RELOADED) {
+            scheduleReload();
+            return;
+        }
+        List<KeyRange> touched = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            // Pages past the window and before the first load come from the table, so every change counts
+            version.incrementAndGet();
+            if (!record(event)) {
+                // The running or upcoming first load reads the committed table, and replays this change
+                return;
+            }
+            StoryResponse before = stories.get(event.getStoryId());
+            switch (event.getType()) {
+                case CREATED, UPDATED -> upsertIfTracked(event.getStory());
+                case COUNTERS -> applyCounters(event);
+                case DELETED -> remove(event.getStoryId());
+                default -> { }
+            }
+            StoryResponse after = stories.get(event.getStoryId());
+            if (before == null && after == null) {
+                // Outside the window before and after; no model-served page shows it
+                return;
+            }
+            for (FeedSort sort : FeedSort.values()) {
+                touched.add(KeyRange.between(sort, before == null ? null : keyOf(sort, before),
+                        after == null ? null : keyOf(sort, after)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        pageCache.asMap().values().removeIf(page -> touched.stream().anyMatch(page::overlaps));
+    }
+
+    @Scheduled(fixedDelayString = "${app.feed.read-model.refresh-interval:300000}",
+            initialDelayString = "${app.feed.read-model.refresh-interval:300000}")
+    public void scheduledRefresh() {
+        if (isLoaded()) {
+            reload();
+        }
+    }
+
+    /**
+     * Read the top of each feed order
+     */
+    @Override
+    protected Snapshot load() {
+        Map<Integer, StoryResponse> freshStories = new HashMap<>();
+        Map<FeedSort, NavigableSet<FeedKey>> freshIndexes = emptyIndexes();
+        Map<FeedSort, FeedKey> freshBoundaries = new EnumMap<>(FeedSort.class);
+        for (FeedSort sort : FeedSort.values()) {
+            List<StoryResponse> rows = pageFromDatabase(sort, null, null, windowSize);
+            if (rows.size() == windowSize) {
+                freshBoundaries.put(sort, keyOf(sort, rows.get(rows.size() - 1)));
+            }
+            rows.forEach(row -> freshStories.putIfAbsent(row.getId(), row));
+        }
+        freshStories.values().forEach(row -> index(freshIndexes, row));
+        return new Snapshot(freshStories, freshIndexes, freshBoundaries);
+    }
+
+    @Override
+    protected void install(Snapshot snapshot) {
+        stories = snapshot.stories();
+        indexes = snapshot.indexes();
+        boundaries = snapshot.boundaries();
+        version.incrementAndGet();
+    }
+
+    @Override
+    protected void reloaded() {
+        pageCache.invalidateAll();
+    }
+
+    /**
+     * @return the page, or null when it reaches past the loaded window or the model is not loaded yet
+     */
+    private List<StoryResponse> pageFromModel(FeedSort sort, Integer afterKey, Integer afterId, int count) {
+        if (!ensureLoaded()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            NavigableSet<FeedKey> index = indexes.get(sort);
+            FeedKey boundary = boundaries.get(sort);
+            NavigableSet<FeedKey> view = afterId == null
+                    ? index
+                    : index.tailSet(new FeedKey(afterKey, afterId), false);
+            List<StoryResponse> page = new ArrayList<>(Math.min(count, view.size()));
+            for (FeedKey key : view) {
+                if (page.size() == count) {
+                    break;
+                }
+                if (boundary != null && key.compareTo(boundary) > 0) {
+                    // Stories past the window may be missing from the model
+                    return null;
+                }
+                page.add(new StoryResponse(stories.get(key.id())));
+            }
+            if (page.size() < count && boundary != null) {
+                return null;
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<StoryResponse> pageFromDatabase(FeedSort sort, Integer afterKey, Integer afterId, int count) {
+        Limit limit = Limit.of(count);
+        if (afterId == null) {
+            return switch (sort) {
+                case NEWEST -> storyRepo.findFeedNewest(limit);
+                case MOST_HELPFUL -> storyRepo.findFeedMostHelpful(limit);
+                case MOST_DISCUSSED -> storyRepo.findFeedMostDiscussed(limit);
+            };
+        }
+        return switch (sort) {
+            case NEWEST -> storyRepo.findFeedNewestAfter(afterId, limit);
+            case MOST_HELPFUL -> storyRepo.findFeedMostHelpfulAfter(afterKey, afterId, limit);
+            case MOST_DISCUSSED -> storyRepo.findFeedMostDiscussedAfter(afterKey, afterId, limit);
+        };
+    }
+
+    /**
+     * @return whether the model can serve reads; if not, a background load is started
+     */
+    private boolean ensureLoaded() {
+        if (!isLoaded()) {
+            scheduleReload();
+        }
+        return isLoaded();
+    }
+
+    /**
+     * The read may or may not have seen the event, so counter changes take the story's
+     * post-change values instead of adding the deltas a second time
+     */
+    @Override
+    protected void replay(StoryChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED, COUNTERS -> upsertIfTracked(event.getStory());
+            case DELETED -> remove(event.getStoryId());
+            default -> { }
+        }
+    }
+
+    private void upsertIfTracked(StoryResponse story) {
+        if (stories.containsKey(story.getId()) || isInWindow(story)) {
+            upsert(story);
+        }
+    }
+
+    private void upsert(StoryResponse story) {
+        StoryResponse row = new StoryResponse(story);
+        row.setLikedByMe(null);
+        StoryResponse previous = stories.put(row.getId(), row);
+        if (previous != null) {
+            unindex(previous);
+        }
+        index(indexes, row);
+    }
+
+    private void applyCounters(StoryChangedEvent event) {
+        StoryResponse current = stories.get(event.getStoryId());
+        if (current == null) {
+            // Not tracked yet; the event's snapshot carries the post-change counts
+            upsertIfTracked(event.getStory());
+            return;
+        }
+        StoryResponse updated = new StoryResponse(current);
+        // Mirrors the GREATEST(..., 0) clamp of the counter UPDATEs
+        updated.setHelpfulVotes(Math.max(0, current.getHelpfulVotes() + event.getHelpfulVotesDelta()));
+        updated.setCommentCount(Math.max(0, current.getCommentCount() + event.getCommentCountDelta()));
+        upsert(updated);
+    }
+
+    private void remove(Integer id) {
+        StoryResponse previous = stories.remove(id);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    // Whether the story ranks ahead of the loaded window's end in any order
+    private boolean isInWindow(StoryResponse story) {
+        for (FeedSort sort : FeedSort.values()) {
+            FeedKey boundary = boundaries.get(sort);
+            if (boundary == null || keyOf(sort, story).compareTo(boundary) <= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void unindex(StoryResponse story) {
+        indexes.forEach((sort, index) -> index.remove(keyOf(sort, story)));
+    }
+
+    private static void index(Map<FeedSort, NavigableSet<FeedKey>> indexes, StoryResponse story) {
+        indexes.forEach((sort, index) -> index.add(keyOf(sort, story)));
+    }
+
+    private static FeedKey keyOf(FeedSort sort, StoryResponse story) {
+        return new FeedKey(sort.sortKey(story), story.getId());
+    }
+
+    private static Map<FeedSort, NavigableSet<FeedKey>> emptyIndexes() {
+        Map<FeedSort, NavigableSet<FeedKey>> indexes = new EnumMap<>(FeedSort.class);
+        for (FeedSort sort : FeedSort.values()) {
+            indexes.put(sort, new TreeSet<>());
+        }
+        return indexes;
+    }
+
+    // State read by one load
+    record Snapshot(Map<Integer, StoryResponse> stories, Map<FeedSort, NavigableSet<FeedKey>> indexes,
+                    Map<FeedSort, FeedKey> boundaries) {
+    }
+
+    // Descending by sort key, then by id, matching the keyset cursor order
+    record FeedKey(int key, int id) implements Comparable<FeedKey> {
+        @Override
+        public int compareTo(FeedKey other) {
+            int byKey = Integer.compare(other.key, key);
+            return byKey != 0 ? byKey : Integer.compare(other.id, id);
+        }
+    }
+
+    // Keys from first to last in feed order; a null last runs to the end of the feed
+    private record KeyRange(FeedSort sort, FeedKey first, FeedKey last) {
+        static KeyRange between(FeedSort sort, FeedKey before, FeedKey after) {
+            if (before == null || after == null) {
+                // Entering or leaving the window: everything from the known key down may shift
+                return new KeyRange(sort, before == null ? after : before, null);
+            }
+            return before.compareTo(after) <= 0
+                    ? new KeyRange(sort, before, after)
+                    : new KeyRange(sort, after, before);
+        }
+    }
+
+    // A page covers the keys strictly after from, up to and including to; null means unbounded
+    private record CachedPage(FeedSort sort, FeedKey from, FeedKey to, byte[] json) {
+        boolean overlaps(KeyRange range) {
+            return range.sort() == sort
+                    && (to == null || range.first().compareTo(to) <= 0)
+                    && (from == null || range.last() == null || range.last().compareTo(from) > 0);
+        }
+    }
+}
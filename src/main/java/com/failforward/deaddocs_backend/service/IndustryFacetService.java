@@ -0,0 +1,212 @@
+package com.failforward.deaddocs_backend.service;
+
+import com.failforward.deaddocs_backend.dto.IndustryFacet;
+import com.failforward.deaddocs_backend.dto.IndustryTotal;
+import com.failforward.deaddocs_backend.dto.StoryResponse;
+import com.failforward.deaddocs_backend.repository.StoryRepo;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Pattern;
+
+/**
+ * Per-industry story counts and vote totals, kept in memory
+ * Industries are normalized (trimmed, whitespace collapsed, case folded) so spelling variants
+ * share one facet. Built from a GROUP BY over the stories table on first use, then updated
+ * from committed StoryChangedEvents and reloaded on a fixed interval. Events replayed after a
+ * reload apply their deltas, so one that committed just before the query started is counted
+ * twice until the next reload.
+ */
+@Service
+public class IndustryFacetService extends StoryReadModel<Map<String, IndustryFacetService.Facet>> {
+    public static final String UNSPECIFIED = "Other";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Comparator<IndustryFacet> BY_SIZE = Comparator
+            .comparingLong(IndustryFacet::getStoryCount).reversed()
+            .thenComparing(IndustryFacet::getKey);
+
+    private final StoryRepo storyRepo;
+
+    // Guarded by lock
+    private Map<String, Facet> facets = new HashMap<>();
+
+    public IndustryFacetService(StoryRepo storyRepo, @Qualifier("backgroundExecutor") ExecutorService executor) {
+        super(executor);
+        this.storyRepo = storyRepo;
+    }
+
+    /**
+     * Get every industry with its story count and vote total, largest first
+     */
+    public List<IndustryFacet> getFacets() {
+        loadNow();
+        List<IndustryFacet> result;
+        lock.readLock().lock();
+        try {
+            result = new ArrayList<>(facets.size());
+            for (Facet facet : facets.values()) {
+                result.add(new IndustryFacet(facet.key, facet.displayName, facet.storyCount, facet.helpfulVotes));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(BY_SIZE);
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoryChanged(StoryChangedEvent event) {
+        if (event.getType() == StoryChangedEvent.Type.RELOADED) {
+            if (isLoaded()) {
+                scheduleReload();
+            }
+            return;
+        }
+        boolean stale;
+        lock.writeLock().lock();
+        try {
+            if (!record(event)) {
+                // The first load reads the committed table, and replays this change
+                return;
+            }
+            stale = !apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (stale) {
+            scheduleReload();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.facets.refresh-interval:300000}",
+            initialDelayString = "${app.facets.refresh-interval:300000}")
+    public void scheduledRefresh() {
+        if (isLoaded()) {
+            reload();
+        }
+    }
+
+    /**
+     * Sum the stories table per industry spelling and merge the variants
+     */
+    @Override
+    protected Map<String, Facet> load() {
+        Map<String, Facet> fresh = new HashMap<>();
+        for (IndustryTotal row : storyRepo.sumByIndustry()) {
+            long votes = row.getHelpfulVotes() == null ? 0 : row.getHelpfulVotes();
+            facetFor(fresh, row.getIndustry(), row.getFirstStoryId()).add(row.getStoryCount(), votes);
+        }
+        return fresh;
+    }
+
+    @Override
+    protected void install(Map<String, Facet> fresh) {
+        facets = fresh;
+    }
+
+    @Override
+    protected void replay(StoryChangedEvent event) {
+        if (!apply(event)) {
+            scheduleReload();
+        }
+    }
+
+    /**
+     * Normalized facet key for a free-text industry
+     * @param industry the raw value as entered on the story
+     * @return trimmed, whitespace-collapsed, lower-case key, or the key for UNSPECIFIED
+     */
+    static String normalize(String industry) {
+        String display = displayName(industry);
+        return display.toLowerCase(Locale.ROOT);
+    }
+
+    private static String displayName(String industry) {
+        if (industry == null || industry.isBlank()) {
+            return UNSPECIFIED;
+        }
+        return WHITESPACE.matcher(industry.trim()).replaceAll(" ");
+    }
+
+    // The facet is named after its oldest story's spelling
+    private static Facet facetFor(Map<String, Facet> facets, String industry, int storyId) {
+        Facet facet = facets.computeIfAbsent(normalize(industry), key -> new Facet(key, displayName(industry), storyId));
+        if (storyId < facet.firstStoryId) {
+            facet.displayName = displayName(industry);
+            facet.firstStoryId = storyId;
+        }
+        return facet;
+    }
+
+    /**
+     * @return false if the event does not carry enough to update the totals, and a reload is needed
+     */
+    private boolean apply(StoryChangedEvent event) {
+        StoryResponse story = event.getStory();
+        switch (event.getType()) {
+            case CREATED -> facetFor(facets, story.getIndustry(), story.getId()).add(1, story.getHelpfulVotes());
+            case COUNTERS -> {
+                int delta = event.getHelpfulVotesDelta();
+                if (delta < 0 && story.getHelpfulVotes() == 0) {
+                    // The GREATEST(..., 0) clamp may have absorbed part of the delta
+                    return false;
+                }
+                Facet facet = facets.get(normalize(story.getIndustry()));
+                if (facet != null) {
+                    facet.add(0, delta);
+                }
+            }
+            case DELETED -> {
+                if (story != null) {
+                    remove(story);
+                }
+            }
+            // Absolute vote updates do not say what they replaced
+            case UPDATED -> {
+                return false;
+            }
+            default -> { }
+        }
+        return true;
+    }
+
+    private void remove(StoryResponse story) {
+        Facet facet = facets.get(normalize(story.getIndustry()));
+        if (facet == null) {
+            return;
+        }
+        facet.add(-1, -story.getHelpfulVotes());
+        if (facet.storyCount <= 0) {
+            facets.remove(facet.key);
+        }
+    }
+
+    static final class Facet {
+        private final String key;
+        private String displayName;
+        private int firstStoryId;
+        private long storyCount;
+        private long helpfulVotes;
+
+        private Facet(String key, String displayName, int firstStoryId) {
+            this.key = key;
+            this.displayName = displayName;
+            this.firstStoryId = firstStoryId;
+        }
+
+        private void add(long stories, long votes) {
+            storyCount += stories;
+            helpfulVotes += votes;
+        }
+    }
+}
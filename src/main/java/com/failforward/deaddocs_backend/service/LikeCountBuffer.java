@@ -0,0 +1,276 @@
+package com.failforward.deaddocs_backend.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind accumulator for stories.helpful_votes
+ * When enabled, like/unlike deltas are summed in memory per story and applied
+ * to the stories table with one set-based UPDATE per flush interval. story_likes rows
+ * remain the source of truth; syncLikeCount repairs any drift.
+ */
+@Component
+public class LikeCountBuffer {
+    private static final Logger log = LoggerFactory.getLogger(LikeCountBuffer.class);
+
+    // Stories per UPDATE statement, keeping the bind parameter count well under the driver limit
+    private static final int FLUSH_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StoryCache storyCache;
+    private final boolean enabled;
+
+    // Writers share the read lock; a flush takes the write lock only to swap in an empty map
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private Map<Integer, LongAdder> pending = new ConcurrentHashMap<>();
+    // Deltas taken by the running flush, still counted by pendingDelta until their chunk is in the table
+    private volatile Map<Integer, Long> inFlight = Map.of();
+    private final AtomicLong oldestPendingNanos = new AtomicLong();
+
+    private final Timer flushTimer;
+    private final Timer flushLag;
+    private final DistributionSummary batchSize;
+
+    public LikeCountBuffer(JdbcTemplate jdbcTemplate, StoryCache storyCache, MeterRegistry meterRegistry,
+                           @Value("${app.likes.write-behind.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.storyCache = storyCache;
+        this.enabled = enabled;
+        this.flushTimer = Timer.builder("likes.write_behind.flush")
+                .description("Time spent applying buffered like deltas")
+                .register(meterRegistry);
+        this.flushLag = Timer.builder("likes.write_behind.flush.lag")
+                .description("Age of the oldest buffered delta when it was flushed")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("likes.write_behind.batch.size")
+                .description("Stories updated per flush")
+                .register(meterRegistry);
+        Gauge.builder("likes.write_behind.pending.age", this, LikeCountBuffer::pendingAgeSeconds)
+                .description("Seconds since the oldest unflushed delta was recorded")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Record a change in helpful votes to be applied on the next flush
+     * @param storyId the story ID
+     * @param delta votes to add, negative to remove
+     */
+    public void record(Integer storyId, int delta) {
+        swapLock.readLock().lock();
+        try {
+            pending.computeIfAbsent(storyId, id -> new LongAdder()).add(delta);
+            oldestPendingNanos.compareAndSet(0, System.nanoTime());
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Record a change in helpful votes once the current transaction commits
+     * A like or unlike that rolls back then never reaches the table. Outside a transaction
+     * the delta is recorded right away.
+     * @param storyId the story ID
+     * @param delta votes to add, negative to remove
+     */
+    public void recordOnCommit(Integer storyId, int delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(storyId, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(storyId, delta);
+            }
+        });
+    }
+
+    /**
+     * Sum of deltas recorded for a story that have not been written to the stories table yet,
+     * including those the running flush is applying
+     */
+    public long pendingDelta(Integer storyId) {
+        swapLock.readLock().lock();
+        try {
+            LongAdder adder = pending.get(storyId);
+            return (adder == null ? 0 : adder.sum()) + inFlight.getOrDefault(storyId, 0L);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drop buffered deltas for a story whose count is being recomputed or overwritten
+     * Holding the flush monitor waits out a running flush, so no delta it already took can
+     * land on top of the new count.
+     */
+    public synchronized void discard(Integer storyId) {
+        swapLock.writeLock().lock();
+        try {
+            pending.remove(storyId);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recount the stories in [fromId, toId] from story_likes, dropping their buffered deltas first
+     * The recount already includes every committed like, so those deltas must not be flushed
+     * on top of it. Holding the flush monitor keeps a concurrent flush from doing exactly that;
+     * a like recorded after the discard but committed before the recount's snapshot can still
+     * be counted twice, which the next reconcile run repairs
+     * @return whatever the recount returns
+     */
+    public synchronized <T> T recount(int fromId, int toId, Supplier<T> recount) {
+        swapLock.writeLock().lock();
+        try {
+            pending.keySet().removeIf(id -> id >= fromId && id <= toId);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        return recount.get();
+    }
+
+    @Scheduled(fixedDelayString = "${app.likes.write-behind.flush-interval:1000}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    /**
+     * Apply all buffered deltas to the stories table, one UPDATE ... FROM (VALUES ...) per chunk
+     * Until its chunk commits a drained delta stays visible to pendingDelta, so readers
+     * combining a cached count with the pending delta never undercount mid-flush, and it
+     * stops being counted as soon as the table holds it.
+     * Deltas that fail to apply are put back so the next flush retries them
+     * @return number of stories updated
+     */
+    public synchronized int flush() {
+        Map<Integer, Long> drained = new HashMap<>();
+        long oldest;
+        swapLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            pending.forEach((id, adder) -> {
+                long delta = adder.sum();
+                if (delta != 0) {
+                    drained.put(id, delta);
+                }
+            });
+            pending = new ConcurrentHashMap<>();
+            inFlight = new ConcurrentHashMap<>(drained);
+            oldest = oldestPendingNanos.getAndSet(0);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        if (drained.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<Integer, Long>> rows = new ArrayList<>(drained.entrySet());
+        long start = System.nanoTime();
+        int written = 0;
+        try {
+            for (; written < rows.size(); written += FLUSH_CHUNK_SIZE) {
+                List<Map.Entry<Integer, Long>> chunk = rows.subList(written, Math.min(written + FLUSH_CHUNK_SIZE, rows.size()));
+                applyChunk(chunk);
+                landed(chunk);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Error flushing buffered like counts, will retry", e);
+            // Moved back under the write lock so pendingDelta never sees a delta twice or not at all
+            swapLock.writeLock().lock();
+            try {
+                for (Map.Entry<Integer, Long> row : rows.subList(written, rows.size())) {
+                    record(row.getKey(), row.getValue().intValue());
+                }
+                inFlight = Map.of();
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            return written;
+        }
+        long end = System.nanoTime();
+        flushTimer.record(end - start, TimeUnit.NANOSECONDS);
+        if (oldest != 0) {
+            flushLag.record(end - oldest, TimeUnit.NANOSECONDS);
+        }
+        batchSize.record(rows.size());
+        inFlight = Map.of();
+        return rows.size();
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    private void applyChunk(List<Map.Entry<Integer, Long>> rows) {
+        StringBuilder sql = new StringBuilder(
+                "UPDATE stories s SET helpful_votes = GREATEST(s.helpful_votes + v.delta, 0) FROM (VALUES ");
+        Object[] args = new Object[rows.size() * 2];
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(CAST(? AS integer), CAST(? AS integer))");
+            args[i * 2] = rows.get(i).getKey();
+            args[i * 2 + 1] = rows.get(i).getValue().intValue();
+        }
+        sql.append(") AS v(id, delta) WHERE s.id = v.id");
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    /**
+     * Stop counting a committed chunk as in flight
+     * Evicts before clearing, so a reader still holding the pre-flush cached count keeps adding the delta
+     */
+    private void landed(List<Map.Entry<Integer, Long>> chunk) {
+        for (Map.Entry<Integer, Long> row : chunk) {
+            storyCache.evict(row.getKey());
+        }
+        swapLock.writeLock().lock();
+        try {
+            for (Map.Entry<Integer, Long> row : chunk) {
+                inFlight.remove(row.getKey());
+            }
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private double pendingAgeSeconds() {
+        long oldest = oldestPendingNanos.get();
+        return oldest == 0 ? 0 : (System.nanoTime() - oldest) / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,102 @@
+package com.failforward.deaddocs_backend.service;
+
+import com.failforward.deaddocs_backend.dto.SyncJobStatus;
+import com.failforward.deaddocs_backend.repository.StoryRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Background reconciliation of stories.helpful_votes against story_likes
+ * Walks the stories table in id-range chunks, each a single set-based UPDATE
+ * that only touches drifted rows
+ */
+@Component
+public class LikeCountSyncJob {
+    private static final Logger log = LoggerFactory.getLogger(LikeCountSyncJob.class);
+
+    private final StoryRepo storyRepo;
+    private final StoryService storyService;
+    private final StoryCache storyCache;
+    private final LikeCountBuffer likeCountBuffer;
+    private final int chunkSize;
+    private final ExecutorService executor;
+
+    private volatile SyncJobStatus.State state = SyncJobStatus.State.IDLE;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile int chunksTotal;
+    private volatile int chunksDone;
+    private volatile long idsScanned;
+    private volatile long storiesCorrected;
+    private volatile String error;
+
+    public LikeCountSyncJob(StoryRepo storyRepo, StoryService storyService, StoryCache storyCache,
+                            LikeCountBuffer likeCountBuffer,
+                            @Qualifier("backgroundExecutor") ExecutorService executor,
+                            @Value("${app.likes.sync.chunk-size:1000}") int chunkSize) {
+        this.storyRepo = storyRepo;
+        this.storyService = storyService;
+        this.storyCache = storyCache;
+        this.likeCountBuffer = likeCountBuffer;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Start a reconciliation run unless one is already in progress
+     * @return the job status right after the request
+     */
+    public synchronized SyncJobStatus start() {
+        if (state == SyncJobStatus.State.RUNNING) {
+            return getStatus();
+        }
+        state = SyncJobStatus.State.RUNNING;
+        startedAt = Instant.now();
+        finishedAt = null;
+        chunksTotal = 0;
+        chunksDone = 0;
+        idsScanned = 0;
+        storiesCorrected = 0;
+        error = null;
+        executor.submit(this::run);
+        return getStatus();
+    }
+
+    public SyncJobStatus getStatus() {
+        return new SyncJobStatus(state, startedAt, finishedAt, chunksTotal, chunksDone,
+                idsScanned, storiesCorrected, error);
+    }
+
+    private void run() {
+        try {
+            Integer minId = storyRepo.findMinId();
+            Integer maxId = storyRepo.findMaxId();
+            if (minId != null && maxId != null) {
+                chunksTotal = (int) (((long) maxId - minId) / chunkSize + 1);
+                for (long from = minId; from <= maxId; from += chunkSize) {
+                    int to = (int) Math.min(from + chunkSize - 1, maxId);
+                    int fromId = (int) from;
+                    // Deltas buffered for this chunk are already in the recount, drop them with it
+                    storiesCorrected += likeCountBuffer.recount(fromId, to,
+                            () -> storyService.reconcileLikeCounts(fromId, to));
+                    idsScanned += to - from + 1;
+                    chunksDone++;
+                }
+            }
+            state = SyncJobStatus.State.COMPLETED;
+        } catch (Exception e) {
+            error = e.getMessage();
+            state = SyncJobStatus.State.FAILED;
+            log.error("Error syncing like counts", e);
+        } finally {
+            finishedAt = Instant.now();
+            storyCache.evictAll();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.failforward.deaddocs_backend.service;
+
+import com.failforward.deaddocs_backend.dto.CursorPage;
+import com.failforward.deaddocs_backend.dto.StorySearchResult;
+import com.failforward.deaddocs_backend.dto.StorySearchRow;
+import com.failforward.deaddocs_backend.repository.StoryRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+
+/**
+ * Ranked full-text search backed by the Postgres tsvector columns and GIN indexes
+ * The vectors are generated columns, so new stories and comments are searchable as soon as they commit
+ */
+@Service
+@Transactional(readOnly = true)
+public class SearchService {
+    public static final int MAX_QUERY_LENGTH = 200;
+    // Offset paging gets slower the deeper it goes, so results stop after this many hits
+    public static final int MAX_RESULTS = 1000;
+    // Match delimiters emitted by ts_headline in StoryRepo.search
+    private static final String MATCH_START = "\u0002";
+    private static final String MATCH_STOP = "\u0003";
+
+    private final StoryRepo storyRepo;
+
+    public SearchService(StoryRepo storyRepo) {
+        this.storyRepo = storyRepo;
+    }
+
+    /**
+     * Search stories by title, industry, preview text and comment content
+     * @param query search text, supports "quoted phrases", OR and -excluded words
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit requested page size, capped at StoryService.MAX_PAGE_SIZE
+     * @return best matches first, each with a highlighted snippet
+     */
+    public CursorPage<StorySearchResult> search(String query, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query is too long (max " + MAX_QUERY_LENGTH + " characters)");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        int pageSize = Math.min(limit, StoryService.MAX_PAGE_SIZE);
+
+        int offset = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorCodec.decode(cursor, 1);
+            try {
+                offset = Integer.parseInt(parts[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        if (offset >= MAX_RESULTS) {
+            return new CursorPage<>(List.of(), null, false);
+        }
+
+        // Fetch one extra row to find out whether another page exists
+        List<StorySearchRow> rows = storyRepo.search(query.trim(), pageSize + 1, offset);
+        boolean hasMore = rows.size() > pageSize && offset + pageSize < MAX_RESULTS;
+        List<StorySearchResult> items = rows.stream()
+                .limit(pageSize)
+                .map(SearchService::toResult)
+                .toList();
+        String nextCursor = hasMore ? CursorCodec.encode(offset + pageSize) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    private static StorySearchResult toResult(StorySearchRow row) {
+        return new StorySearchResult(row.getId(), row.getUserId(), row.getFounderName(),
+                Boolean.TRUE.equals(row.getIsAnonymous()), row.getStoryTitle(), row.getIndustry(),
+                row.getHelpfulVotes(), row.getCommentCount(), highlight(row.getSnippet()), row.getRank());
+    }
+
+    /**
+     * Escape the user's text, then mark the matched terms
+     * Clients render the snippet as HTML, so only the <mark> tags added here may survive as markup
+     */
+    static String highlight(String snippet) {
+        if (snippet == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(snippet, "UTF-8")
+                .replace(MATCH_START, "<mark>")
+                .replace(MATCH_STOP, "</mark>");
+    }
+}
@@ -0,0 +1,84 @@
+package com.failforward.deaddocs_backend.service;
+
+import com.failforward.deaddocs_backend.entity.Story;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * In-process cache of Story snapshots keyed by id
+ * Entries are detached copies, so callers can never mutate what other readers see
+ */
+@Component
+public class StoryCache {
+    private final Cache<Integer, Story> cache;
+
+    public StoryCache(MeterRegistry meterRegistry,
+                      @Value("${app.story-cache.maximum-size:10000}") long maximumSize,
+                      @Value("${app.story-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Publishes cache.gets (hit/miss), cache.evictions and cache.size under cache=stories
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "stories");
+    }
+
+    public Optional<Story> get(Integer id) {
+        Story cached = cache.getIfPresent(id);
+        return Optional.ofNullable(cached).map(StoryCache::copyOf);
+    }
+
+    public void put(Story story) {
+        if (story != null && story.getId() != null) {
+            cache.put(story.getId(), copyOf(story));
+        }
+    }
+
+    /**
+     * Invalidate a story now and again once the current transaction completes,
+     * so a concurrent reader cannot re-populate the entry with pre-commit data
+     * @param id the story ID
+     */
+    public void evict(Integer id) {
+        if (id == null) {
+            return;
+        }
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    static Story copyOf(Story source) {
+        Story copy = new Story();
+        copy.setId(source.getId());
+        copy.setUserId(source.getUserId());
+        copy.setFounderName(source.getFounderName());
+        copy.setAnonymous(source.isAnonymous());
+        copy.setStoryTitle(source.getStoryTitle());
+        copy.setIndustry(source.getIndustry());
+        copy.setPreviewText(source.getPreviewText());
+        copy.setHelpfulVotes(source.getHelpfulVotes());
+        copy.setCommentCount(source.getCommentCount());
+        return copy;
+    }
+}
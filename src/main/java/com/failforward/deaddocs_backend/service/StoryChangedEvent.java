@@ -0,0 +1,68 @@
+package com.failforward.deaddocs_backend.service;
+
+import com.failforward.deaddocs_backend.dto.StoryResponse;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by StoryService for every story write
+ * Listeners use @TransactionalEventListener, so they only see changes that committed.
+ * Counter changes carry deltas rather than absolute values, so listeners stay correct
+ * when concurrent commits are delivered out of order.
+ * They also carry when the counted activity happened: now for a new like or comment, the
+ * original time when one is taken back, or null when that time was never recorded.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class StoryChangedEvent {
+    public enum Type {
+        // story holds the full post-change row
+        CREATED,
+        UPDATED,
+        // apply helpfulVotesDelta and commentCountDelta to the current row
+        COUNTERS,
+        // story holds the removed row, or null if none existed
+        DELETED,
+        // many rows changed at once, listeners should reload
+        RELOADED
+    }
+
+    private final Type type;
+    private final Integer storyId;
+    private final StoryResponse story;
+    private final int helpfulVotesDelta;
+    private final int commentCountDelta;
+    private final LocalDateTime activityAt;
+
+    public static StoryChangedEvent created(StoryResponse story) {
+        return new StoryChangedEvent(Type.CREATED, story.getId(), story, 0, 0, null);
+    }
+
+    public static StoryChangedEvent updated(StoryResponse story) {
+        return new StoryChangedEvent(Type.UPDATED, story.getId(), story, 0, 0, null);
+    }
+
+    public static StoryChangedEvent counters(StoryResponse story, int helpfulVotesDelta, int commentCountDelta) {
+        return counters(story, helpfulVotesDelta, commentCountDelta, LocalDateTime.now());
+    }
+
+    public static StoryChangedEvent counters(StoryResponse story, int helpfulVotesDelta, int commentCountDelta,
+                                             LocalDateTime activityAt) {
+        return new StoryChangedEvent(Type.COUNTERS, story.getId(), story, helpfulVotesDelta, commentCountDelta,
+                activityAt);
+    }
+
+    /**
+     * @param story the row as it was before deletion, null if it did not exist
+     */
+    public static StoryChangedEvent deleted(Integer storyId, StoryResponse story) {
+        return new StoryChangedEvent(Type.DELETED, storyId, story, 0, 0, null);
+    }
+
+    public static StoryChangedEvent reloaded() {
+        return new StoryChangedEvent(Type.RELOADED, null, null, 0, 0, null);
+    }
+}
@@ -0,0 +1,218 @@
+package com.failforward.deaddocs_backend.service;
+
+import com.failforward.deaddocs_backend.dto.BulkImportResult;
+import com.failforward.deaddocs_backend.dto.StoryRequest;
+import com.failforward.deaddocs_backend.entity.Story;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk story import from NDJSON or a JSON array
+ * Rows are parsed one at a time from the request stream, checked with the same rules as addStory,
+ * and persisted in batches of app.import.batch-size, one transaction per batch. Story ids come
+ * from the pooled sequence, so Hibernate sends each batch as JDBC batched inserts.
+ * Invalid rows are reported and skipped; a batch the database rejects fails only its own rows.
+ */
+@Service
+public class StoryImportService {
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxRows;
+
+    public StoryImportService(EntityManager entityManager, TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                              @Value("${app.import.batch-size:500}") int batchSize,
+                              @Value("${app.import.max-rows:100000}") int maxRows) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Import one story per line; blank lines are ignored
+     */
+    public BulkImportResult importNdjson(InputStream body) throws IOException {
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int row = run.nextRow();
+            if (run.overLimit(row)) {
+                break;
+            }
+            try {
+                run.accept(row, objectMapper.readValue(line, StoryRequest.class));
+            } catch (JsonProcessingException e) {
+                run.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * Import a top-level JSON array of stories
+     * A row whose fields have the wrong types is skipped; a syntax error ends the import, since
+     * the rest of the array cannot be located reliably
+     */
+    public BulkImportResult importJsonArray(InputStream body) throws IOException {
+        ImportRun run = new ImportRun();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Request body must be a JSON array of stories");
+            }
+            while (true) {
+                JsonToken token;
+                try {
+                    token = parser.nextToken();
+                } catch (JsonProcessingException e) {
+                    run.reject(run.nextRow(), "Malformed JSON: " + e.getOriginalMessage());
+                    break;
+                }
+                if (token == JsonToken.END_ARRAY || token == null) {
+                    break;
+                }
+                int row = run.nextRow();
+                if (run.overLimit(row)) {
+                    break;
+                }
+                // Read the whole element first, so a row with wrongly typed fields is skipped on its own
+                TreeNode element;
+                try {
+                    element = parser.readValueAsTree();
+                } catch (JsonProcessingException e) {
+                    run.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+                    break;
+                }
+                try {
+                    run.accept(row, objectMapper.treeToValue(element, StoryRequest.class));
+                } catch (JsonProcessingException e) {
+                    run.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+        }
+        return run.finish();
+    }
+
+    private static Story toStory(StoryRequest request) {
+        Story story = new Story();
+        story.setUserId(request.getUserId());
+        story.setFounderName(request.getFounderName());
+        story.setAnonymous(request.isAnonymous());
+        story.setStoryTitle(request.getStoryTitle());
+        story.setIndustry(request.getIndustry());
+        story.setPreviewText(request.getPreviewText());
+        story.setHelpfulVotes(request.getHelpfulVotes());
+        story.setCommentCount(request.getCommentCount());
+        return story;
+    }
+
+    /**
+     * State of a single import request
+     */
+    private class ImportRun {
+        private final List<Story> batch = new ArrayList<>(batchSize);
+        private final List<Integer> batchRows = new ArrayList<>(batchSize);
+        private final List<BulkImportResult.RowError> errors = new ArrayList<>();
+        private int received;
+        private int imported;
+        private int failed;
+
+        int nextRow() {
+            return ++received;
+        }
+
+        boolean overLimit(int row) {
+            if (row <= maxRows) {
+                return false;
+            }
+            reject(row, "Row limit of " + maxRows + " reached, remaining rows were not read");
+            return true;
+        }
+
+        void accept(int row, StoryRequest request) {
+            if (request == null) {
+                reject(row, "Row is empty");
+                return;
+            }
+            Story story = toStory(request);
+            try {
+                StoryService.validateStory(story);
+            } catch (IllegalArgumentException e) {
+                reject(row, e.getMessage());
+                return;
+            }
+            batch.add(story);
+            batchRows.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(int row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BulkImportResult.RowError(row, message));
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (Story story : batch) {
+                        entityManager.persist(story);
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                imported += batch.size();
+            } catch (RuntimeException e) {
+                String message = "Batch insert failed: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                for (Integer row : batchRows) {
+                    reject(row, message);
+                }
+            }
+            batch.clear();
+            batchRows.clear();
+        }
+
+        BulkImportResult finish() {
+            flush();
+            if (imported > 0) {
+                // Feed, facets and caches rebuild once instead of handling one event per row
+                eventPublisher.publishEvent(StoryChangedEvent.reloaded());
+            }
+            return new BulkImportResult(received, imported, failed, errors);
+        }
+    }
+}
@@ -1,19 +1,30 @@
 package com.failforward.deaddocs_backend.service;
 
-import com.failforward.deaddocs_backend.entity.StoryLike;
+import com.failforward.deaddocs_backend.dto.RemovedLike;
+import com.failforward.deaddocs_backend.dto.StoryCount;
 import com.failforward.deaddocs_backend.repository.StoryLikesRepo;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
 @Service
 @Transactional
 public class StoryLikesService {
+    public static final int MAX_BATCH_SIZE = 500;
+
     private final StoryLikesRepo storyLikeRepository;
 
     public StoryLikesService(StoryLikesRepo storyLikeRepository) {
         this.storyLikeRepository = storyLikeRepository;
     }
 
+    @Transactional(readOnly = true)
     public boolean hasUserLiked(String userId, Integer storyId) {
         if (userId == null || storyId == null) {
             return false;
@@ -27,6 +38,32 @@ public class StoryLikesService {
         return storyLikeRepository.findByUserIdAndStoryId(userId, storyId).isPresent();
     }
 
+    /**
+     * Find which of the given stories a user has liked, in a single query
+     * @param userId the user ID
+     * @param storyIds the story IDs to check, at most MAX_BATCH_SIZE
+     * @return the subset of storyIds the user has liked
+     */
+    @Transactional(readOnly = true)
+    public Set<Integer> getLikedStoryIds(String userId, Collection<Integer> storyIds) {
+        if (userId == null || userId.length() > 255 || storyIds == null || storyIds.isEmpty()) {
+            return Set.of();
+        }
+        if (storyIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Too many story IDs (max " + MAX_BATCH_SIZE + ")");
+        }
+        return new HashSet<>(storyLikeRepository.findLikedStoryIds(userId, new HashSet<>(storyIds)));
+    }
+
+    /**
+     * Delete every like of a story in one statement
+     * @param storyId the story ID
+     * @return number of likes removed
+     */
+    public int deleteLikesForStory(Integer storyId) {
+        return storyLikeRepository.deleteByStoryId(storyId);
+    }
+
     /**
      * Like a story with proper transaction handling
      * @param userId the user ID
@@ -44,16 +81,8 @@ public class StoryLikesService {
             throw new IllegalArgumentException("UserId is too long (max 255 characters)");
         }
         
-        // Check if already liked within the same transaction
-        if (hasUserLiked(userId, storyId)) {
-            return false; // Already liked
-        }
-        
-        StoryLike like = new StoryLike();
-        like.setUserId(userId);
-        like.setStoryId(storyId);
-        storyLikeRepository.save(like);
-        return true; // Successfully liked
+        // Single upsert: duplicates are ignored by the unique constraint instead of raising
+        return storyLikeRepository.insertIfAbsent(userId, storyId) > 0;
     }
 
     /**
@@ -64,6 +93,17 @@ public class StoryLikesService {
      */
     @Transactional
     public boolean unlikeStory(String userId, Integer storyId) {
+        return removeLike(userId, storyId).isPresent();
+    }
+
+    /**
+     * Unlike a story and report when the removed like was made
+     * @param userId the user ID
+     * @param storyId the story ID
+     * @return the removed like, empty if not liked
+     */
+    @Transactional
+    public Optional<RemovedLike> removeLike(String userId, Integer storyId) {
         if (userId == null || storyId == null) {
             throw new IllegalArgumentException("UserId and storyId cannot be null");
         }
@@ -73,13 +113,8 @@ public class StoryLikesService {
             throw new IllegalArgumentException("UserId is too long (max 255 characters)");
         }
         
-        // Check if liked within the same transaction
-        if (!hasUserLiked(userId, storyId)) {
-            return false; // Not liked
-        }
-        
-        storyLikeRepository.deleteByUserIdAndStoryId(userId, storyId);
-        return true; // Successfully unliked
+        // Single delete: the returned row tells whether a like existed and when it was made
+        return storyLikeRepository.deleteLike(userId, storyId);
     }
 
     public long getLikeCount(Integer storyId) {
@@ -90,37 +125,22 @@ public class StoryLikesService {
     }
 
     /**
-     * Optimized method to like a story and return the new count
-     * Uses atomic operations to prevent race conditions
-     * @param userId the user ID
-     * @param storyId the story ID
-     * @param currentCount current like count from story entity
-     * @return new like count after liking
+     * Get like counts for many stories with one grouped query
+     * @param storyIds the story IDs, at most MAX_BATCH_SIZE
+     * @return like count per story; stories without likes are absent
      */
-    @Transactional
-    public int likeStoryAndGetNewCount(String userId, Integer storyId, int currentCount) {
-        boolean wasLiked = likeStory(userId, storyId);
-        if (wasLiked) {
-            return currentCount + 1;
+    public Map<Integer, Long> getLikeCounts(Collection<Integer> storyIds) {
+        if (storyIds == null || storyIds.isEmpty()) {
+            return Map.of();
         }
-        return currentCount; // Already liked, return current count
-    }
-
-    /**
-     * Optimized method to unlike a story and return the new count
-     * Uses atomic operations to prevent race conditions
-     * @param userId the user ID
-     * @param storyId the story ID
-     * @param currentCount current like count from story entity
-     * @return new like count after unliking
-     */
-    @Transactional
-    public int unlikeStoryAndGetNewCount(String userId, Integer storyId, int currentCount) {
-        boolean wasUnliked = unlikeStory(userId, storyId);
-        if (wasUnliked) {
-            return Math.max(0, currentCount - 1); // Ensure count doesn't go negative
+        if (storyIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Too many story IDs (max " + MAX_BATCH_SIZE + ")");
+        }
+        Map<Integer, Long> counts = new HashMap<>();
+        for (StoryCount count : storyLikeRepository.countByStoryIds(new HashSet<>(storyIds))) {
+            counts.put(count.getStoryId(), count.getTotal());
         }
-        return currentCount; // Not liked, return current count
+        return counts;
     }
 
     /**
@@ -0,0 +1,142 @@
+package com.failforward.deaddocs_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reload scaffolding for in-memory models built from the stories table
+ * Loads run one at a time, in the background or on demand. Events that commit while a load
+ * reads the database are buffered and replayed onto its result, so swapping in the fresh
+ * state never drops a change.
+ * @param <S> the state read by one load
+ */
+abstract class StoryReadModel<S> {
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    // Guards the subclass state and the replay buffer
+    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ExecutorService executor;
+    private final Object reloadMonitor = new Object();
+    private final AtomicBoolean reloadPending = new AtomicBoolean();
+
+    // Guarded by lock; events committed during a running load, null when none runs
+    private List<StoryChangedEvent> replay;
+    private volatile boolean loaded;
+
+    protected StoryReadModel(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Read fresh state from the database, called without holding the lock
+     */
+    protected abstract S load();
+
+    /**
+     * Swap in freshly loaded state, called under the write lock
+     */
+    protected abstract void install(S state);
+
+    /**
+     * Apply an event that committed while the installed state was being read, called under the write lock
+     */
+    protected abstract void replay(StoryChangedEvent event);
+
+    /**
+     * Called once a load has been installed, without holding the lock
+     */
+    protected void reloaded() {
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Load fresh state and swap it in
+     * Readers keep using the previous state while the database is read
+     */
+    public void reload() {
+        synchronized (reloadMonitor) {
+            lock.writeLock().lock();
+            try {
+                replay = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            S state;
+            try {
+                state = load();
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    replay = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                install(state);
+                replay.forEach(this::replay);
+                replay = null;
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            reloaded();
+        }
+    }
+
+    /**
+     * Record a committed event for a running load; the caller holds the write lock
+     * @return whether state has been loaded and should apply the event now
+     */
+    protected boolean record(StoryChangedEvent event) {
+        if (replay != null) {
+            replay.add(event);
+        }
+        return loaded;
+    }
+
+    /**
+     * Load on the calling thread unless another load has already completed
+     */
+    protected void loadNow() {
+        if (!loaded) {
+            synchronized (reloadMonitor) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    /**
+     * Start a background load unless one is already waiting to run
+     */
+    protected void scheduleReload() {
+        if (!reloadPending.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            reloadPending.set(false);
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                log.error("Error reloading {}", getClass().getSimpleName(), e);
+            }
+        });
+    }
+}
@@ -1,45 +1,214 @@
 package com.failforward.deaddocs_backend.service;
 
+import com.failforward.deaddocs_backend.dto.CursorPage;
+import com.failforward.deaddocs_backend.dto.FeedSort;
+import com.failforward.deaddocs_backend.dto.RemovedLike;
+import com.failforward.deaddocs_backend.dto.StoryResponse;
+import com.failforward.deaddocs_backend.dto.StoryRow;
 import com.failforward.deaddocs_backend.entity.Story;
 import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
 import com.failforward.deaddocs_backend.repository.StoryRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class StoryService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final StoryRepo storyRepo;
     private final StoryLikesService storyLikesService;
+    private final StoryCache storyCache;
+    private final LikeCountBuffer likeCountBuffer;
+    private final FeedReadModel feedReadModel;
+    private final CommentPurger commentPurger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
 
-    public StoryService(StoryRepo storyRepo, StoryLikesService storyLikesService) {
+    public StoryService(StoryRepo storyRepo, StoryLikesService storyLikesService, StoryCache storyCache,
+                        LikeCountBuffer likeCountBuffer, FeedReadModel feedReadModel, CommentPurger commentPurger,
+                        ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper) {
         this.storyRepo = storyRepo;
         this.storyLikesService = storyLikesService;
+        this.storyCache = storyCache;
+        this.likeCountBuffer = likeCountBuffer;
+        this.feedReadModel = feedReadModel;
+        this.commentPurger = commentPurger;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Get one page of the story feed using keyset pagination
+     * The first pages of each order come from the in-memory feed read model without a transaction;
+     * deeper pages use the keyset queries
+     * @param sort the feed order
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit requested page size, capped at MAX_PAGE_SIZE
+     * @return the page and the cursor for the next one
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPage<StoryResponse> getFeed(FeedSort sort, String cursor, int limit) {
+        return getFeed(sort, cursor, limit, null);
+    }
+
+    /**
+     * Get one page of the story feed, marking the stories the given user has liked
+     * @param userId the viewing user, or null to leave likedByMe unset
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPage<StoryResponse> getFeed(FeedSort sort, String cursor, int limit, String userId) {
+        int pageSize = feedPageSize(limit);
+        Integer[] after = decodeFeedCursor(sort, cursor);
+        // Fetch one extra row to find out whether another page exists
+        CursorPage<StoryResponse> page = toFeedPage(sort,
+                feedReadModel.page(sort, after[0], after[1], pageSize + 1), pageSize);
+
+        if (userId != null && !page.getItems().isEmpty()) {
+            Set<Integer> liked = storyLikesService.getLikedStoryIds(userId,
+                    page.getItems().stream().map(StoryResponse::getId).toList());
+            page.getItems().forEach(item -> item.setLikedByMe(liked.contains(item.getId())));
+        }
+        return page;
+    }
+
+    /**
+     * Get one anonymous feed page already serialized to JSON
+     * Pages served from the read model are cached until a change touches them, so repeated
+     * scrolls skip rendering entirely
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public byte[] getFeedJson(FeedSort sort, String cursor, int limit) {
+        int pageSize = feedPageSize(limit);
+        Integer[] after = decodeFeedCursor(sort, cursor);
+        String key = sort.name() + "|" + pageSize + "|" + (cursor == null ? "" : cursor);
+        return feedReadModel.cachedPage(key, sort, after[0], after[1], pageSize + 1, rows -> {
+            try {
+                return objectMapper.writeValueAsBytes(toFeedPage(sort, rows, pageSize));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize feed page", e);
+            }
+        });
+    }
+
+    private static int feedPageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
     }
 
-    public List<Story> getAllStories(){
-        return storyRepo.findAll();
+    /**
+     * @return sort key and id of the last story already returned, both null from the top
+     */
+    private static Integer[] decodeFeedCursor(FeedSort sort, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return new Integer[2];
+        }
+        String[] parts = CursorCodec.decode(cursor, 3);
+        if (!sort.name().equals(parts[0])) {
+            throw new IllegalArgumentException("Cursor does not match sort order " + sort);
+        }
+        return new Integer[]{Integer.parseInt(parts[1]), Integer.parseInt(parts[2])};
+    }
+
+    private static CursorPage<StoryResponse> toFeedPage(FeedSort sort, List<StoryResponse> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<StoryResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            StoryResponse last = items.get(items.size() - 1);
+            nextCursor = CursorCodec.encode(sort.name(), sort.sortKey(last), last.getId());
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
     }
 
+    /**
+     * Get a story snapshot, served from the story cache when possible
+     * The returned instance is detached; use the repository directly to modify a story
+     */
     public Story getStoryById(int id) throws StoryNotFoundException {
+        Optional<Story> cached = storyCache.get(id);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        Story story = storyRepo.findById(id).orElseThrow(() -> new StoryNotFoundException("Story not found with id: "+id));
+        // A read-only caller's transaction may be on a lagging replica, so only primary reads are cached
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            storyCache.put(story);
+        }
+        return StoryCache.copyOf(story);
+    }
+
+    private Story loadStoryForUpdate(Integer id) throws StoryNotFoundException {
         return storyRepo.findById(id).orElseThrow(() -> new StoryNotFoundException("Story not found with id: "+id));
     }
 
+    @Transactional(readOnly = true)
     public Story getStoryByUserId(String userId){
         return storyRepo.getStoriesByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
     public List<Story> getAllStoriesByUserId(String userId){
         return storyRepo.findAllByUserId(userId);
     }
 
-    public void deleteStoryById(Integer id){
+    /**
+     * Delete a story together with its likes and comments
+     * Each table is cleared with one set-based DELETE in this transaction; very large
+     * comment threads are purged in the background after commit instead
+     * @return true if comments are still being purged in the background
+     */
+    public boolean deleteStoryById(Integer id){
+        return deleteStoryById(id, false);
+    }
+
+    /**
+     * @param asyncPurge purge comments in the background regardless of thread size
+     */
+    public boolean deleteStoryById(Integer id, boolean asyncPurge){
+        StoryResponse existing = storyRepo.findFeedRowById(id).orElse(null);
+        int commentCount = existing == null ? 0 : existing.getCommentCount();
+        if (existing != null) {
+            // Listeners have counted the buffered likes, so the removed row includes them
+            existing.setHelpfulVotes((int) Math.max(0, existing.getHelpfulVotes() + likeCountBuffer.pendingDelta(id)));
+        }
+        // Before the row is locked by the delete: discard waits for a running flush, which may be updating it
+        likeCountBuffer.discard(id);
+        storyLikesService.deleteLikesForStory(id);
+        boolean purging = commentPurger.deleteComments(id, commentCount, asyncPurge);
         storyRepo.deleteStoryById(id);
+        storyCache.evict(id);
+        eventPublisher.publishEvent(StoryChangedEvent.deleted(id, existing));
+        return purging;
     }
 
     public Story addStory(Story story){
+        validateStory(story);
+
+        Story savedStory = storyRepo.save(story);
+        storyCache.evict(savedStory.getId());
+        eventPublisher.publishEvent(StoryChangedEvent.created(StoryResponse.from(savedStory)));
+        return savedStory;
+    }
+
+    /**
+     * Field length checks shared by addStory and bulk import
+     * @throws IllegalArgumentException naming the first field that is too long
+     */
+    static void validateStory(Story story) {
         // Validate field lengths to prevent database constraint violations
         if (story.getUserId() != null && story.getUserId().length() > 255) {
             throw new IllegalArgumentException("User ID is too long (max 255 characters)");
@@ -60,8 +229,6 @@ public class StoryService {
         if (story.getPreviewText() != null && story.getPreviewText().length() > 1000) {
             throw new IllegalArgumentException("Preview text is too long (max 1000 characters)");
         }
-        
-        return storyRepo.save(story);
     }
 
     public int getHelpfulVotesById(int id) throws StoryNotFoundException {
@@ -74,9 +241,121 @@ public class StoryService {
     }
     
     public Story updateStoryByHelpfulVotes(Integer id, int newHelpfulVotes) throws StoryNotFoundException {
-        Story story = getStoryById(id);
+        Story story = loadStoryForUpdate(id);
+        // An absolute count replaces whatever is buffered, so a later flush must not add to it
+        likeCountBuffer.discard(id);
         story.setHelpfulVotes(newHelpfulVotes);
-        return storyRepo.save(story);
+        Story savedStory = storyRepo.save(story);
+        storyCache.evict(id);
+        eventPublisher.publishEvent(StoryChangedEvent.updated(StoryResponse.from(savedStory)));
+        return savedStory;
+    }
+
+    /**
+     * Like a story and count the like in one transaction
+     * A failed counter update rolls the like back too, so a retry can add it again
+     * @param id the story ID
+     * @param userId the liking user
+     * @return the story snapshot, with the new count if the like was added
+     * @throws StoryNotFoundException if story not found
+     */
+    @Transactional(rollbackFor = StoryNotFoundException.class)
+    public Story likeStory(Integer id, String userId) throws StoryNotFoundException {
+        Story story = getStoryById(id);
+        if (storyLikesService.likeStory(userId, id)) {
+            story = adjustHelpfulVotes(id, 1);
+        }
+        return story;
+    }
+
+    /**
+     * Unlike a story and take the like back from its count in one transaction
+     * @param id the story ID
+     * @param userId the user whose like is removed
+     * @return the story snapshot, with the new count if a like was removed
+     * @throws StoryNotFoundException if story not found
+     */
+    @Transactional(rollbackFor = StoryNotFoundException.class)
+    public Story unlikeStory(Integer id, String userId) throws StoryNotFoundException {
+        Story story = getStoryById(id);
+        Optional<RemovedLike> removed = storyLikesService.removeLike(userId, id);
+        if (removed.isPresent()) {
+            story = adjustHelpfulVotes(id, -1, removed.get().getLikedAt());
+        }
+        return story;
+    }
+
+    /**
+     * Atomically add to a story's helpful votes in a single UPDATE ... RETURNING
+     * Safe under concurrent likes, and never drops the count below zero.
+     * The cached snapshot is evicted rather than overwritten, so neither an uncommitted count
+     * nor a concurrent update that commits out of order can be served from the cache.
+     * In write-behind mode the delta is buffered on commit and applied on the next flush instead
+     * @param id the story ID
+     * @param delta votes to add, negative to remove
+     * @return the story snapshot carrying the new count
+     * @throws StoryNotFoundException if story not found
+     */
+    public Story adjustHelpfulVotes(Integer id, int delta) throws StoryNotFoundException {
+        return adjustHelpfulVotes(id, delta, LocalDateTime.now());
+    }
+
+    /**
+     * Add to a story's helpful votes for a like made at a given time
+     * Unlikes pass the removed like's time so trending takes back what that like added
+     * @param activityAt when the counted like was made, null if unknown
+     */
+    public Story adjustHelpfulVotes(Integer id, int delta, LocalDateTime activityAt) throws StoryNotFoundException {
+        Story story;
+        if (likeCountBuffer.isEnabled()) {
+            story = getStoryById(id);
+            // Buffered only once the like commits, so a rollback leaves nothing for the flush
+            likeCountBuffer.recordOnCommit(id, delta);
+            story.setHelpfulVotes((int) Math.max(0, story.getHelpfulVotes() + likeCountBuffer.pendingDelta(id) + delta));
+        } else {
+            story = storyRepo.adjustHelpfulVotes(id, delta).map(StoryService::toStory)
+                    .orElseThrow(() -> new StoryNotFoundException("Story not found with id: "+id));
+            storyCache.evict(id);
+        }
+        eventPublisher.publishEvent(StoryChangedEvent.counters(StoryResponse.from(story), delta, 0, activityAt));
+        return story;
+    }
+
+    /**
+     * Atomically add to a story's comment count in a single UPDATE ... RETURNING
+     * @param id the story ID
+     * @param delta comments to add, negative to remove
+     * @return the story snapshot carrying the new count
+     * @throws StoryNotFoundException if story not found
+     */
+    public Story adjustCommentCount(Integer id, int delta) throws StoryNotFoundException {
+        return adjustCommentCount(id, delta, LocalDateTime.now());
+    }
+
+    /**
+     * Add to a story's comment count for a comment written at a given time
+     * @param activityAt when the counted comment was written, null if unknown
+     */
+    public Story adjustCommentCount(Integer id, int delta, LocalDateTime activityAt) throws StoryNotFoundException {
+        Story story = storyRepo.adjustCommentCount(id, delta).map(StoryService::toStory)
+                .orElseThrow(() -> new StoryNotFoundException("Story not found with id: "+id));
+        storyCache.evict(id);
+        eventPublisher.publishEvent(StoryChangedEvent.counters(StoryResponse.from(story), 0, delta, activityAt));
+        return story;
+    }
+
+    private static Story toStory(StoryRow row) {
+        Story story = new Story();
+        story.setId(row.getId());
+        story.setUserId(row.getUserId());
+        story.setFounderName(row.getFounderName());
+        story.setAnonymous(row.isAnonymous());
+        story.setStoryTitle(row.getStoryTitle());
+        story.setIndustry(row.getIndustry());
+        story.setPreviewText(row.getPreviewText());
+        story.setHelpfulVotes(row.getHelpfulVotes());
+        story.setCommentCount(row.getCommentCount());
+        return story;
     }
 
     /**
@@ -84,25 +363,28 @@ public class StoryService {
      * This ensures consistency between Story entity and story_likes table
      */
     public Story syncLikeCount(Integer storyId) throws StoryNotFoundException {
-        Story story = getStoryById(storyId);
+        Story story = loadStoryForUpdate(storyId);
+        likeCountBuffer.discard(storyId);
         int accurateCount = (int) storyLikesService.getLikeCount(storyId);
         story.setHelpfulVotes(accurateCount);
-        return storyRepo.save(story);
+        Story savedStory = storyRepo.save(story);
+        storyCache.evict(storyId);
+        eventPublisher.publishEvent(StoryChangedEvent.updated(StoryResponse.from(savedStory)));
+        return savedStory;
     }
 
     /**
-     * Sync like counts for all stories
-     * This ensures database consistency across all stories
+     * Recompute helpful votes from story_likes for one id range
+     * Runs in its own transaction so a full reconciliation commits chunk by chunk
+     * @param fromId first story ID of the range, inclusive
+     * @param toId last story ID of the range, inclusive
+     * @return number of stories whose count had drifted
      */
-    public void syncAllLikeCounts() {
-        List<Story> allStories = getAllStories();
-        for (Story story : allStories) {
-            try {
-                syncLikeCount(story.getId());
-            } catch (StoryNotFoundException e) {
-                // Log error but continue with other stories
-                System.err.println("Story not found during sync: " + story.getId());
-            }
+    public int reconcileLikeCounts(int fromId, int toId) {
+        int corrected = storyRepo.reconcileHelpfulVotes(fromId, toId);
+        if (corrected > 0) {
+            eventPublisher.publishEvent(StoryChangedEvent.reloaded());
         }
+        return corrected;
     }
 }
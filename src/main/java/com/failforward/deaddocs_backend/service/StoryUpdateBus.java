@@ -0,0 +1,292 @@
+package com.failforward.deaddocs_backend.service;
+
+import com.failforward.deaddocs_backend.dto.StoryResponse;
+import com.failforward.deaddocs_backend.dto.StoryUpdate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of live vote and comment counts over Server-Sent Events
+ * Committed StoryChangedEvents only mark a story dirty; every app.sse.coalesce-interval the
+ * dirty stories are read from the feed read model and one update per story is sent, however
+ * many likes or comments arrived in between. Each subscriber has a bounded queue that drops
+ * its oldest message when full, so a slow client only ever loses stale counts and never
+ * holds up the others.
+ */
+@Component
+public class StoryUpdateBus {
+    private static final String UPDATE_EVENT = "story-update";
+
+    private final FeedReadModel feedReadModel;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    // Sends block on slow sockets, so each drain gets its own virtual thread
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+    private final Map<Integer, Set<Subscriber>> storySubscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> feedSubscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter dropped;
+
+    public StoryUpdateBus(FeedReadModel feedReadModel, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                          @Value("${app.sse.buffer-size:64}") int bufferSize,
+                          @Value("${app.sse.max-subscribers:10000}") int maxSubscribers,
+                          @Value("${app.sse.timeout:30m}") Duration timeout) {
+        this.feedReadModel = feedReadModel;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        this.dropped = Counter.builder("sse.messages.dropped")
+                .description("Updates discarded because a subscriber's buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("sse.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open story and feed event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream of updates for one story
+     * @throws IllegalStateException if the subscriber limit is reached
+     */
+    public SseEmitter subscribeToStory(Integer storyId) {
+        return register(storyId).emitter;
+    }
+
+    /**
+     * Open a stream of updates for every story
+     * @throws IllegalStateException if the subscriber limit is reached
+     */
+    public SseEmitter subscribeToFeed() {
+        return register(null).emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoryChanged(StoryChangedEvent event) {
+        if (event.getStoryId() != null && event.getType() != StoryChangedEvent.Type.RELOADED) {
+            dirty.add(event.getStoryId());
+        }
+    }
+
+    /**
+     * Send one coalesced update per story changed since the last run
+     */
+    @Scheduled(fixedDelayString = "${app.sse.coalesce-interval:500}")
+    public void publishPending() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (Iterator<Integer> it = dirty.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+
+        Map<Integer, StoryResponse> current = new HashMap<>();
+        for (StoryResponse story : feedReadModel.get(ids)) {
+            current.put(story.getId(), story);
+        }
+        for (Integer id : ids) {
+            StoryResponse story = current.get(id);
+            StoryUpdate update = story == null
+                    ? new StoryUpdate(id, 0, 0, true)
+                    : new StoryUpdate(id, story.getHelpfulVotes(), story.getCommentCount(), false);
+            Message message = new Message(sequence.incrementAndGet(), UPDATE_EVENT, toJson(update));
+
+            Set<Subscriber> subscribers = storySubscribers.get(id);
+            if (subscribers != null) {
+                subscribers.forEach(subscriber -> subscriber.offer(message));
+            }
+            feedSubscribers.forEach(subscriber -> subscriber.offer(message));
+        }
+    }
+
+    /**
+     * Keep idle streams alive through proxies and detect clients that went away
+     * Streams with updates still queued are skipped, since sending those does the same job.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.heartbeat-interval:15000}")
+    public void heartbeat() {
+        Message ping = new Message(0, null, null);
+        storySubscribers.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.ping(ping)));
+        feedSubscribers.forEach(subscriber -> subscriber.ping(ping));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        storySubscribers.values().forEach(subscribers -> subscribers.forEach(Subscriber::complete));
+        feedSubscribers.forEach(Subscriber::complete);
+        sender.shutdownNow();
+    }
+
+    private Subscriber register(Integer storyId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Too many open event streams");
+        }
+        Subscriber subscriber = new Subscriber(storyId, newEmitter(timeoutMillis));
+        // Added before the callbacks are wired, so a stream that ends straight away is still removed
+        if (storyId == null) {
+            feedSubscribers.add(subscriber);
+        } else {
+            storySubscribers.compute(storyId, (id, subscribers) -> {
+                Set<Subscriber> set = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+                set.add(subscriber);
+                return set;
+            });
+        }
+        subscriber.emitter.onCompletion(() -> unregister(subscriber));
+        subscriber.emitter.onTimeout(subscriber::complete);
+        subscriber.emitter.onError(error -> subscriber.complete());
+        return subscriber;
+    }
+
+    private void unregister(Subscriber subscriber) {
+        boolean removed;
+        if (subscriber.storyId == null) {
+            removed = feedSubscribers.remove(subscriber);
+        } else {
+            boolean[] found = new boolean[1];
+            // Removing the empty set under compute keeps a concurrent register from adding to a detached set
+            storySubscribers.computeIfPresent(subscriber.storyId, (id, subscribers) -> {
+                found[0] = subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+            removed = found[0];
+        }
+        if (removed) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Create the emitter behind a new stream
+     */
+    protected SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private String toJson(StoryUpdate update) {
+        try {
+            return objectMapper.writeValueAsString(update);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize story update", e);
+        }
+    }
+
+    // A null name marks a heartbeat comment
+    private record Message(long id, String name, String data) { }
+
+    private final class Subscriber {
+        private final Integer storyId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<Message> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(Integer storyId, SseEmitter emitter) {
+            this.storyId = storyId;
+            this.emitter = emitter;
+        }
+
+        void offer(Message message) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= bufferSize) {
+                    queue.pollFirst();
+                    dropped.increment();
+                }
+                queue.addLast(message);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            sender.execute(this::drain);
+        }
+
+        void ping(Message ping) {
+            synchronized (this) {
+                if (!queue.isEmpty()) {
+                    return;
+                }
+            }
+            offer(ping);
+        }
+
+        private void drain() {
+            while (true) {
+                Message message;
+                synchronized (this) {
+                    message = queue.pollFirst();
+                    if (message == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (message.name() == null) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(message.id()))
+                                .name(message.name())
+                                .data(message.data()));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    complete();
+                    return;
+                }
+            }
+        }
+
+        void complete() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                queue.clear();
+            }
+            unregister(this);
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+    }
+}
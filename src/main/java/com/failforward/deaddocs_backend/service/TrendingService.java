@@ -0,0 +1,243 @@
+package com.failforward.deaddocs_backend.service;
+
+import com.failforward.deaddocs_backend.dto.StoryResponse;
+import com.failforward.deaddocs_backend.dto.StoryScore;
+import com.failforward.deaddocs_backend.repository.CommentRepo;
+import com.failforward.deaddocs_backend.repository.StoryLikesRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Trending ranking from time-decayed like and comment activity
+ * An event at time t adds weight * 2^((t - epoch) / halfLife) to its story. Every score shares
+ * the same scale factor, so ordering by this value equals ordering by the decayed score at any
+ * moment: one event moves one story in the ranking and nothing is re-sorted as time passes.
+ * The epoch is advanced periodically to keep the exponent small.
+ * Scores are rebuilt from story_likes.liked_at and comments.created_at on first use; likes made
+ * before liked_at was recorded have no time and are left out.
+ */
+@Service
+public class TrendingService {
+    // Exponent span after which scores are rescaled to a new epoch
+    private static final double REBASE_AFTER_HALF_LIVES = 32;
+    // Stories whose decayed score falls below this are dropped from the ranking
+    private static final double MIN_SCORE = 0.01;
+
+    private final StoryLikesRepo storyLikesRepo;
+    private final CommentRepo commentRepo;
+    private final FeedReadModel feedReadModel;
+    private final double halfLifeMillis;
+    private final Duration window;
+    private final double likeWeight;
+    private final double commentWeight;
+    private final int maxTracked;
+
+    // Guarded by this; readers only touch the volatile ranking
+    private final Map<Integer, Double> scores = new HashMap<>();
+    private volatile NavigableSet<ScoreEntry> ranking = new ConcurrentSkipListSet<>();
+    private long epochMillis;
+    private volatile boolean loaded;
+
+    public TrendingService(StoryLikesRepo storyLikesRepo, CommentRepo commentRepo, FeedReadModel feedReadModel,
+                           @Value("${app.trending.half-life:6h}") Duration halfLife,
+                           @Value("${app.trending.window:7d}") Duration window,
+                           @Value("${app.trending.like-weight:1.0}") double likeWeight,
+                           @Value("${app.trending.comment-weight:2.0}") double commentWeight,
+                           @Value("${app.trending.max-tracked:10000}") int maxTracked) {
+        this.storyLikesRepo = storyLikesRepo;
+        this.commentRepo = commentRepo;
+        this.feedReadModel = feedReadModel;
+        this.halfLifeMillis = halfLife.toMillis();
+        this.window = window;
+        this.likeWeight = likeWeight;
+        this.commentWeight = commentWeight;
+        this.maxTracked = maxTracked;
+    }
+
+    /**
+     * Get the currently trending stories, hottest first
+     * Reads the top of the in-memory ranking and the feed read model, no database access
+     * @param limit number of stories, capped at StoryService.MAX_PAGE_SIZE
+     */
+    public List<StoryResponse> getTrending(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        ensureLoaded();
+        int count = Math.min(limit, StoryService.MAX_PAGE_SIZE);
+        // A story re-ranked while iterating can be met at both its old and new position
+        Set<Integer> ids = new LinkedHashSet<>(count);
+        for (ScoreEntry entry : ranking) {
+            if (ids.size() == count) {
+                break;
+            }
+            ids.add(entry.storyId());
+        }
+        return feedReadModel.get(new ArrayList<>(ids));
+    }
+
+    /**
+     * Add activity to a story's score
+     * @param storyId the story ID
+     * @param weight activity weight, negative to take back an earlier like or comment
+     * @param atMillis when the activity happened
+     */
+    public synchronized void recordActivity(Integer storyId, double weight, long atMillis) {
+        if (!loaded) {
+            // The first load reads the committed rows, including this activity
+            return;
+        }
+        rebaseIfNeeded(System.currentTimeMillis());
+        double previous = scores.getOrDefault(storyId, 0.0);
+        double updated = Math.max(0, previous + weight * scale(atMillis));
+        if (previous > 0) {
+            ranking.remove(new ScoreEntry(previous, storyId));
+        }
+        if (updated > 0) {
+            scores.put(storyId, updated);
+            ranking.add(new ScoreEntry(updated, storyId));
+        } else {
+            scores.remove(storyId);
+        }
+        trimToCapacity();
+    }
+
+    public synchronized void remove(Integer storyId) {
+        Double previous = scores.remove(storyId);
+        if (previous != null) {
+            ranking.remove(new ScoreEntry(previous, storyId));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStoryChanged(StoryChangedEvent event) {
+        switch (event.getType()) {
+            case COUNTERS -> {
+                double weight = event.getHelpfulVotesDelta() * likeWeight
+                        + event.getCommentCountDelta() * commentWeight;
+                // Removals carry the original time, so they take back exactly what the activity added;
+                // activity without a recorded time never contributed to any score
+                if (weight != 0 && event.getActivityAt() != null) {
+                    recordActivity(event.getStoryId(), weight, toMillis(event.getActivityAt()));
+                }
+            }
+            case DELETED -> remove(event.getStoryId());
+            default -> { }
+        }
+    }
+
+    /**
+     * Advance the epoch and drop stories that have decayed away
+     */
+    @Scheduled(fixedDelayString = "${app.trending.maintenance-interval:3600000}")
+    public synchronized void maintain() {
+        if (loaded) {
+            rebase(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Rebuild all scores from likes and comments inside the trending window
+     */
+    public synchronized void reload() {
+        long now = System.currentTimeMillis();
+        LocalDateTime epoch = toLocal(now);
+        LocalDateTime since = toLocal(now - window.toMillis());
+        double halfLifeSeconds = halfLifeMillis / 1000.0;
+
+        Map<Integer, Double> fresh = new HashMap<>();
+        for (StoryScore row : storyLikesRepo.sumDecayedLikes(since, epoch, halfLifeSeconds)) {
+            fresh.merge(row.getStoryId(), row.getScore() * likeWeight, Double::sum);
+        }
+        for (StoryScore row : commentRepo.sumDecayedComments(since, epoch, halfLifeSeconds)) {
+            fresh.merge(row.getStoryId(), row.getScore() * commentWeight, Double::sum);
+        }
+
+        epochMillis = now;
+        scores.clear();
+        fresh.forEach((id, score) -> {
+            if (score >= MIN_SCORE) {
+                scores.put(id, score);
+            }
+        });
+        rebuildRanking();
+        trimToCapacity();
+        loaded = true;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private double scale(long atMillis) {
+        return Math.pow(2, (atMillis - epochMillis) / halfLifeMillis);
+    }
+
+    private void rebaseIfNeeded(long now) {
+        if (now - epochMillis > REBASE_AFTER_HALF_LIVES * halfLifeMillis) {
+            rebase(now);
+        }
+    }
+
+    private void rebase(long now) {
+        double factor = scale(now);
+        epochMillis = now;
+        scores.replaceAll((id, score) -> score / factor);
+        scores.values().removeIf(score -> score < MIN_SCORE);
+        rebuildRanking();
+    }
+
+    private void rebuildRanking() {
+        NavigableSet<ScoreEntry> rebuilt = new ConcurrentSkipListSet<>();
+        scores.forEach((id, score) -> rebuilt.add(new ScoreEntry(score, id)));
+        ranking = rebuilt;
+    }
+
+    private void trimToCapacity() {
+        Iterator<ScoreEntry> coldest = ranking.descendingIterator();
+        while (scores.size() > maxTracked && coldest.hasNext()) {
+            ScoreEntry entry = coldest.next();
+            coldest.remove();
+            scores.remove(entry.storyId());
+        }
+    }
+
+    private static LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Highest score first, ties broken by newest story
+    private record ScoreEntry(double score, int storyId) implements Comparable<ScoreEntry> {
+        @Override
+        public int compareTo(ScoreEntry other) {
+            int byScore = Double.compare(other.score, score);
+            return byScore != 0 ? byScore : Integer.compare(other.storyId, storyId);
+        }
+    }
+}
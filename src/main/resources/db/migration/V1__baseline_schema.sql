@@ -0,0 +1,32 @@
+-- Baseline schema matching the JPA entities
+-- IF NOT EXISTS keeps this a no-op on databases created earlier by ddl-auto=update
+
+CREATE TABLE IF NOT EXISTS stories (
+    id             INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id        VARCHAR(255),
+    founder_name   VARCHAR(255),
+    is_anonymous   BOOLEAN       NOT NULL DEFAULT FALSE,
+    story_title    VARCHAR(255),
+    industry       VARCHAR(255),
+    preview_text   VARCHAR(1000),
+    helpful_votes  INTEGER       NOT NULL DEFAULT 0,
+    comment_count  INTEGER       NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS comments (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    story_id        INTEGER       NOT NULL,
+    user_id         VARCHAR(255)  NOT NULL,
+    commenter_name  VARCHAR(255),
+    is_anonymous    BOOLEAN       NOT NULL,
+    content         TEXT          NOT NULL,
+    created_at      TIMESTAMP(6)  NOT NULL,
+    updated_at      TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS story_likes (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id   VARCHAR(255)  NOT NULL,
+    story_id  INTEGER       NOT NULL,
+    CONSTRAINT uk_story_likes_user_story UNIQUE (user_id, story_id)
+);
@@ -0,0 +1,15 @@
+-- Secondary indexes for per-story and per-user lookups
+
+-- Comment threads and counts by story; the leading story_id column also serves countByStoryId
+CREATE INDEX IF NOT EXISTS idx_comments_story_created ON comments (story_id, created_at DESC, id);
+CREATE INDEX IF NOT EXISTS idx_comments_user_id ON comments (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_stories_user_id ON stories (user_id);
+
+-- The (user_id, story_id) unique constraint covers per-user lookups but not per-story counts
+CREATE INDEX IF NOT EXISTS idx_story_likes_story_id ON story_likes (story_id);
+
+-- Feed sort orders; keyset pages become index range scans instead of sorting the table
+-- NEWEST is served by the primary key
+CREATE INDEX IF NOT EXISTS idx_stories_feed_helpful ON stories (helpful_votes DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_stories_feed_discussed ON stories (comment_count DESC, id DESC);
@@ -0,0 +1,10 @@
+-- Timestamped activity for trending scores
+
+-- Existing likes have no recorded time and keep NULL, so trending leaves them out instead of
+-- treating them all as made at migration time; only new likes get the default
+ALTER TABLE story_likes ADD COLUMN IF NOT EXISTS liked_at TIMESTAMP(6);
+ALTER TABLE story_likes ALTER COLUMN liked_at SET DEFAULT LOCALTIMESTAMP;
+
+-- Trending rebuilds only scan the recent window of likes and comments
+CREATE INDEX IF NOT EXISTS idx_story_likes_liked_at ON story_likes (liked_at);
+CREATE INDEX IF NOT EXISTS idx_comments_created_at ON comments (created_at);
@@ -0,0 +1,16 @@
+-- Full-text search vectors, maintained by Postgres on every insert and update
+-- Adding a STORED generated column rewrites the table once
+
+-- Title ranks above industry, industry above preview text
+ALTER TABLE stories ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(story_title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(industry, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(preview_text, '')), 'C')
+) STORED;
+
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    to_tsvector('english', coalesce(content, ''))
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_stories_search ON stories USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_comments_search ON comments USING GIN (search_vector);
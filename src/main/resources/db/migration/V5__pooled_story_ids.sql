@@ -0,0 +1,17 @@
+-- Story ids come from a pooled sequence so Hibernate can batch inserts
+-- Each nextval reserves a block of 50 ids; must match allocationSize on Story.id
+-- The entity names the sequence stories_id_seq, so whatever sequence backs stories.id (identity or
+-- serial, possibly named differently on databases created by ddl-auto=update) is renamed to it
+DO $$
+DECLARE
+    backing regclass := pg_get_serial_sequence('stories', 'id')::regclass;
+BEGIN
+    IF backing IS NULL THEN
+        RAISE EXCEPTION 'stories.id has no backing sequence';
+    END IF;
+    IF backing IS DISTINCT FROM to_regclass('stories_id_seq') THEN
+        EXECUTE format('ALTER SEQUENCE %s RENAME TO stories_id_seq', backing);
+    END IF;
+END $$;
+
+ALTER SEQUENCE stories_id_seq INCREMENT BY 50;
@@ -0,0 +1,36 @@
+package com.failforward.deaddocs_backend.controller;
+
+import com.failforward.deaddocs_backend.dto.StoryResponse;
+import com.failforward.deaddocs_backend.entity.Story;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StoryMappingBenchmark {
+    private Story story;
+
+    @Setup
+    public void setUp() {
+        story = new Story();
+        story.setId(42);
+        story.setUserId("user-42");
+        story.setFounderName("Benchmark Founder");
+        story.setAnonymous(false);
+        story.setStoryTitle("We scaled before we had product-market fit");
+        story.setIndustry("Technology");
+        story.setPreviewText("x".repeat(500));
+        story.setHelpfulVotes(1234);
+        story.setCommentCount(56);
+    }
+
+    @Benchmark
+    public StoryResponse toResponse() {
+        return StoryController.toResponse(story);
+    }
+}
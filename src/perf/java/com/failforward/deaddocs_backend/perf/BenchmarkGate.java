@@ -0,0 +1,121 @@
+package com.failforward.deaddocs_backend.perf;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Runs all JMH benchmarks and compares them against the recorded baseline
+ * Exits non-zero when any benchmark is slower than baseline * (1 + tolerance) by more
+ * than its measurement error, or has no baseline entry at all, which fails the Maven build.
+ *
+ * System properties:
+ *   benchmark.baseline        path of the baseline properties file
+ *   benchmark.tolerance       allowed slowdown as a fraction, default 0.25
+ *   benchmark.updateBaseline  true to record the current scores as the new baseline
+ *   benchmark.include         JMH include regex, default all benchmarks in this project
+ */
+public final class BenchmarkGate {
+    private static final String BASELINE_HEADER = """
+            JMH baseline scores (AverageTime, in each benchmark's output unit)
+            Every gated benchmark needs an entry here; the gate fails on benchmarks without one.
+            Record or refresh on the reference machine with:
+              mvn -Pperf verify -DskipTests -Dbenchmark.updateBaseline=true""";
+
+    private BenchmarkGate() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path baselinePath = Path.of(System.getProperty("benchmark.baseline",
+                "src/perf/resources/benchmark-baseline.properties"));
+        double tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.25"));
+        boolean updateBaseline = Boolean.parseBoolean(System.getProperty("benchmark.updateBaseline", "false"));
+        String include = System.getProperty("benchmark.include",
+                "com\\.failforward\\.deaddocs_backend\\..*Benchmark.*");
+
+        Options options = new OptionsBuilder().include(include).build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        Properties baseline = loadBaseline(baselinePath);
+        Properties current = new Properties();
+        List<String> regressions = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            if (params.getMode() != Mode.AverageTime) {
+                continue; // only lower-is-better scores are gated
+            }
+            String key = baselineKey(params);
+            double score = result.getPrimaryResult().getScore();
+            String unit = result.getPrimaryResult().getScoreUnit();
+            current.setProperty(key, Double.toString(score));
+
+            String recorded = baseline.getProperty(key);
+            if (recorded == null) {
+                System.out.printf("[benchmark-gate] %s: %.3f %s (no baseline)%n", key, score, unit);
+                missing.add(key);
+                continue;
+            }
+            double limit = Double.parseDouble(recorded) * (1 + tolerance);
+            // Only a slowdown beyond the run's own 99.9% error margin counts; nanosecond-scale
+            // benchmarks otherwise trip the gate on scheduler noise alone
+            double error = result.getPrimaryResult().getScoreError();
+            boolean regressed = !Double.isNaN(error) ? score - error > limit : score > limit;
+            System.out.printf("[benchmark-gate] %s: %.3f +/- %.3f %s, baseline %s, limit %.3f%s%n",
+                    key, score, error, unit, recorded, limit, regressed ? "  REGRESSION" : "");
+            if (regressed) {
+                regressions.add(key);
+            }
+        }
+
+        if (updateBaseline) {
+            try (Writer writer = Files.newBufferedWriter(baselinePath)) {
+                current.store(writer, BASELINE_HEADER);
+            }
+            System.out.println("[benchmark-gate] Baseline written to " + baselinePath);
+            return;
+        }
+
+        if (!missing.isEmpty()) {
+            System.err.println("[benchmark-gate] No baseline recorded for: " + missing);
+        }
+        if (!regressions.isEmpty()) {
+            System.err.println("[benchmark-gate] Regressed beyond " + (int) (tolerance * 100) + "%: " + regressions);
+        }
+        if (!missing.isEmpty() || !regressions.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static String baselineKey(BenchmarkParams params) {
+        StringBuilder key = new StringBuilder(params.getBenchmark());
+        for (String name : params.getParamsKeys()) {
+            key.append('.').append(name).append('_').append(params.getParam(name));
+        }
+        return key.toString();
+    }
+
+    private static Properties loadBaseline(Path path) throws IOException {
+        Properties baseline = new Properties();
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                baseline.load(reader);
+            }
+        }
+        return baseline;
+    }
+}
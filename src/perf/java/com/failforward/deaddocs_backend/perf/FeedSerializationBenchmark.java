@@ -0,0 +1,44 @@
+package com.failforward.deaddocs_backend.perf;
+
+import com.failforward.deaddocs_backend.dto.CursorPage;
+import com.failforward.deaddocs_backend.dto.StoryResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FeedSerializationBenchmark {
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private CursorPage<StoryResponse> page;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring MVC uses for response bodies
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<StoryResponse> items = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            items.add(new StoryResponse(100_000 - i, "user-" + i, "Founder " + i, i % 5 == 0,
+                    "Failure story number " + i, "Technology", "x".repeat(300), 1000 - i, i));
+        }
+        page = new CursorPage<>(items, "TkVXRVNUfDk5OTgwfDk5OTgw", true);
+    }
+
+    @Benchmark
+    public byte[] serializeFeedPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
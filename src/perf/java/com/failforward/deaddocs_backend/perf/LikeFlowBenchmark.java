@@ -0,0 +1,53 @@
+package com.failforward.deaddocs_backend.perf;
+
+import com.failforward.deaddocs_backend.entity.Story;
+import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
+import com.failforward.deaddocs_backend.service.StoryService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Like then unlike through the same service calls StoryLikesController makes,
+ * against a real (embedded) Postgres
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LikeFlowBenchmark {
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private StoryService storyService;
+    private Integer storyId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = PerfEnvironment.startDatabase();
+        context = PerfEnvironment.startApplication(postgres, false);
+        storyService = context.getBean(StoryService.class);
+
+        Story story = new Story();
+        story.setUserId("benchmark-founder");
+        story.setStoryTitle("Benchmark story");
+        story.setIndustry("Technology");
+        storyId = storyService.addStory(story).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public Story likeThenUnlike() throws StoryNotFoundException {
+        storyService.likeStory(storyId, "benchmark-user");
+        return storyService.unlikeStory(storyId, "benchmark-user");
+    }
+}
@@ -0,0 +1,267 @@
+package com.failforward.deaddocs_backend.perf;
+
+import com.failforward.deaddocs_backend.service.LikeCountBuffer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-to-end load test against the real HTTP endpoints
+ * Boots the application on an embedded Postgres, seeds stories, comments and likes,
+ * then drives concurrent virtual-thread clients through three scenarios:
+ * many users liking one story, a burst of comments on one story, and feed scrolling.
+ * Reports p50/p99 latency, throughput and lost updates on the denormalized counters.
+ *
+ * Run with: mvn -Pperf test-compile exec:exec@load-test
+ *
+ * System properties (defaults in brackets):
+ *   loadtest.stories [1000]         stories to seed
+ *   loadtest.commentsPerStory [5]   comments seeded per story
+ *   loadtest.likesPerStory [10]     likes seeded per story
+ *   loadtest.users [500]            concurrent clients per scenario
+ *   loadtest.feedPages [10]         pages each client scrolls
+ *   loadtest.appArgs []             extra --property=value overrides, comma separated,
+ *                                   e.g. --spring.threads.virtual.enabled=true
+ *
+ * To compare request execution modes, run once as-is (platform threads) and once with
+ * -Dloadtest.appArgs=--spring.threads.virtual.enabled=true. In virtual-thread mode the
+ * DbConcurrencyLimitFilter turns pool exhaustion into fast 503s, which show up as errors.
+ *
+ * Measured 2026-10-18 with the defaults (500 users, 5-connection pool) on 1 vCPU, JDK 21.0.1,
+ * embedded Postgres; req/s counts successful requests only:
+ *
+ *   mode                        scenario          ok   errors  p50 ms  p99 ms   req/s
+ *   platform threads            hot-story-likes   441   59      9439   13103    32.3
+ *                               comment-burst     483   17      6141    9144    49.7
+ *                               feed-scroll      5000    0      1985    3656   252.4
+ *   virtual, max-wait 2s        hot-story-likes    21  479      4050   10644     1.9
+ *                               comment-burst      57  443      2682    6501     8.7
+ *                               feed-scroll      5000    0      1409    4046   305.4
+ *   virtual, max-wait 30s       hot-story-likes   500    0     11904   16986    27.8
+ *                               comment-burst     500    0      6451   12053    39.8
+ *                               feed-scroll      5000    0      1159    2984   361.3
+ *
+ * Platform threads let ~200 requests queue inside Hikari, and the writes that wait past its
+ * 5s connection-timeout fail as 500s (76 pool timeouts in that run). Virtual threads never
+ * reach the pool timeout: with the default 2s max-wait the limiter sheds most of a 500-user
+ * write burst as 503s, and with a wait long enough to absorb it every request succeeds at
+ * about the platform-thread write throughput. Reads scale better on virtual threads, +21%
+ * req/s at the default wait and +43% at 30s. Writes stay bound by the pool, not by threads.
+ */
+public final class LoadTestHarness {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String baseUrl;
+
+    private LoadTestHarness(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int stories = Integer.getInteger("loadtest.stories", 1000);
+        int commentsPerStory = Integer.getInteger("loadtest.commentsPerStory", 5);
+        int likesPerStory = Integer.getInteger("loadtest.likesPerStory", 10);
+        int users = Integer.getInteger("loadtest.users", 500);
+        int feedPages = Integer.getInteger("loadtest.feedPages", 10);
+        String[] appArgs = System.getProperty("loadtest.appArgs", "").isBlank()
+                ? new String[0]
+                : System.getProperty("loadtest.appArgs").split(",");
+
+        List<String> allArgs = new ArrayList<>(List.of("--server.port=0"));
+        allArgs.addAll(Arrays.asList(appArgs));
+
+        try (EmbeddedPostgres postgres = PerfEnvironment.startDatabase();
+             ConfigurableApplicationContext context = PerfEnvironment.startApplication(postgres, true,
+                     allArgs.toArray(String[]::new))) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            seed(jdbcTemplate, stories, commentsPerStory, likesPerStory);
+
+            String port = context.getEnvironment().getProperty("local.server.port");
+            LoadTestHarness harness = new LoadTestHarness("http://localhost:" + port);
+            int hotStoryId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM stories", Integer.class);
+
+            System.out.printf("Seeded %d stories, %d comments, %d likes; %d concurrent clients%n",
+                    stories, stories * commentsPerStory, stories * likesPerStory, users);
+            System.out.println("App args: " + allArgs);
+
+            // Scenario 1: every client likes the same story once
+            Stats likes = harness.run("hot-story-likes", users, client -> List.of(
+                    harness.post("/api/stories/" + hotStoryId + "/like?userId=load-user-" + client, null)));
+
+            // Scenario 2: every client comments on the same story once
+            Stats comments = harness.run("comment-burst", users, client -> List.of(
+                    harness.post("/api/comments", "{\"storyId\":" + hotStoryId + ",\"userId\":\"load-user-" + client
+                            + "\",\"commenterName\":\"Load " + client + "\",\"content\":\"Load test comment\"}")));
+
+            // Scenario 3: every client scrolls the most-helpful feed
+            Stats feed = harness.run("feed-scroll", users, client -> harness.scrollFeed(feedPages));
+
+            // Apply any buffered write-behind deltas before checking the counters
+            LikeCountBuffer buffer = context.getBean(LikeCountBuffer.class);
+            if (buffer.isEnabled()) {
+                buffer.flush();
+            }
+
+            int storedVotes = jdbcTemplate.queryForObject(
+                    "SELECT helpful_votes FROM stories WHERE id = ?", Integer.class, hotStoryId);
+            int actualLikes = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM story_likes WHERE story_id = ?", Integer.class, hotStoryId);
+            int storedComments = jdbcTemplate.queryForObject(
+                    "SELECT comment_count FROM stories WHERE id = ?", Integer.class, hotStoryId);
+            int actualComments = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM comments WHERE story_id = ?", Integer.class, hotStoryId);
+
+            System.out.println();
+            System.out.println(Stats.HEADER);
+            System.out.println(likes);
+            System.out.println(comments);
+            System.out.println(feed);
+            System.out.println();
+            System.out.printf("helpful_votes lost updates: %d (stored %d, story_likes rows %d)%n",
+                    actualLikes - storedVotes, storedVotes, actualLikes);
+            System.out.printf("comment_count lost updates: %d (stored %d, comment rows %d)%n",
+                    actualComments - storedComments, storedComments, actualComments);
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int stories, int commentsPerStory, int likesPerStory) {
+        List<Object[]> storyRows = new ArrayList<>(stories);
+        for (int i = 0; i < stories; i++) {
+            storyRows.add(new Object[]{"seed-founder-" + i, "Founder " + i, "Seeded story " + i,
+                    i % 2 == 0 ? "Technology" : "Retail", "Preview " + i, likesPerStory, commentsPerStory});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO stories (user_id, founder_name, story_title, industry, preview_text, "
+                + "helpful_votes, comment_count) VALUES (?, ?, ?, ?, ?, ?, ?)", storyRows);
+
+        List<Integer> ids = jdbcTemplate.queryForList("SELECT id FROM stories ORDER BY id", Integer.class);
+        List<Object[]> commentRows = new ArrayList<>();
+        List<Object[]> likeRows = new ArrayList<>();
+        for (Integer id : ids) {
+            for (int c = 0; c < commentsPerStory; c++) {
+                commentRows.add(new Object[]{id, "seed-user-" + c, "Seed " + c, "Seeded comment " + c});
+            }
+            for (int l = 0; l < likesPerStory; l++) {
+                likeRows.add(new Object[]{"seed-user-" + l, id});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO comments (story_id, user_id, commenter_name, is_anonymous, content, "
+                + "created_at, updated_at) VALUES (?, ?, ?, FALSE, ?, now(), now())", commentRows);
+        jdbcTemplate.batchUpdate("INSERT INTO story_likes (user_id, story_id) VALUES (?, ?)", likeRows);
+    }
+
+    @FunctionalInterface
+    private interface ClientScript {
+        List<Long> run(int client) throws Exception;
+    }
+
+    /**
+     * Run one scenario with a virtual thread per client
+     * Each script returns the latencies (nanos) of the requests it made
+     */
+    private Stats run(String name, int clients, ClientScript script) throws Exception {
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                int client = i;
+                futures.add(executor.submit(() -> {
+                    try {
+                        latencies.addAll(script.run(client));
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Stats(name, latencies.stream().mapToLong(Long::longValue).sorted().toArray(), errors.get(), elapsed);
+    }
+
+    private List<Long> scrollFeed(int pages) throws Exception {
+        List<Long> latencies = new ArrayList<>(pages);
+        String cursor = null;
+        for (int page = 0; page < pages; page++) {
+            String path = "/api/stories?sort=most-helpful&limit=20"
+                    + (cursor == null ? "" : "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            latencies.add(System.nanoTime() - start);
+            check(response);
+            JsonNode next = MAPPER.readTree(response.body()).get("nextCursor");
+            if (next == null || next.isNull()) {
+                break;
+            }
+            cursor = next.asText();
+        }
+        return latencies;
+    }
+
+    private long post(String path, String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (json == null) {
+            request.POST(HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(json));
+        }
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        long latency = System.nanoTime() - start;
+        check(response);
+        return latency;
+    }
+
+    private static void check(HttpResponse<String> response) {
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private record Stats(String name, long[] sortedLatencies, int errors, long elapsedNanos) {
+        static final String HEADER = String.format("%-18s %9s %7s %10s %10s %12s",
+                "scenario", "requests", "errors", "p50 (ms)", "p99 (ms)", "req/s");
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            double throughput = sortedLatencies.length / (elapsedNanos / 1_000_000_000.0);
+            return String.format("%-18s %9d %7d %10.2f %10.2f %12.1f", name, sortedLatencies.length, errors,
+                    percentileMillis(0.50), percentileMillis(0.99), throughput);
+        }
+    }
+}
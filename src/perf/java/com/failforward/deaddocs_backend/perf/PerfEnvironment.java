@@ -0,0 +1,52 @@
+package com.failforward.deaddocs_backend.perf;
+
+import com.failforward.deaddocs_backend.DeaddocsBackendApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against an embedded Postgres instead of the remote database
+ * Flyway creates the schema on start, so every run begins from an empty, current schema
+ */
+public final class PerfEnvironment {
+
+    private PerfEnvironment() {
+    }
+
+    public static EmbeddedPostgres startDatabase() throws IOException {
+        return EmbeddedPostgres.builder().start();
+    }
+
+    /**
+     * Start the application wired to the embedded database
+     * Arguments are passed as command-line properties so they override application.properties
+     * @param postgres the running embedded database
+     * @param web whether to start the embedded web server
+     * @param extraArgs additional --property=value overrides
+     * @return the running application context
+     */
+    public static ConfigurableApplicationContext startApplication(EmbeddedPostgres postgres, boolean web,
+                                                                  String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                // Read-only work can be routed through the replica pool with --app.datasource.replica.enabled=true;
+                // here the "replica" is the same database, which exercises the routing and pool sizing only
+                "--app.datasource.replica.jdbc-url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--app.datasource.replica.username=postgres",
+                "--app.datasource.replica.password=postgres",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"));
+        if (!web) {
+            args.add("--spring.main.web-application-type=none");
+        }
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(DeaddocsBackendApplication.class).run(args.toArray(String[]::new));
+    }
+}
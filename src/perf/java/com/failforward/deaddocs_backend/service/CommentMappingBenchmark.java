@@ -0,0 +1,57 @@
+package com.failforward.deaddocs_backend.service;
+
+import com.failforward.deaddocs_backend.dto.CommentResponse;
+import com.failforward.deaddocs_backend.entity.Comment;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommentMappingBenchmark {
+    private CommentService commentService;
+    private Comment comment;
+    private CommentResponse namedResponse;
+    private CommentResponse anonymousResponse;
+
+    @Setup
+    public void setUp() {
+        // convertToResponse touches no collaborators
+        commentService = new CommentService(null, null, null);
+
+        comment = new Comment();
+        comment.setId(7L);
+        comment.setStoryId(42);
+        comment.setUserId("user-7");
+        comment.setCommenterName("Benchmark Commenter");
+        comment.setAnonymous(false);
+        comment.setContent("This happened to us too. ".repeat(20));
+        comment.setCreatedAt(LocalDateTime.now());
+        comment.setUpdatedAt(LocalDateTime.now());
+
+        namedResponse = commentService.convertToResponse(comment);
+        comment.setAnonymous(true);
+        anonymousResponse = commentService.convertToResponse(comment);
+        comment.setAnonymous(false);
+    }
+
+    @Benchmark
+    public CommentResponse convertToResponse() {
+        return commentService.convertToResponse(comment);
+    }
+
+    @Benchmark
+    public String displayNameNamed() {
+        return namedResponse.getDisplayName();
+    }
+
+    @Benchmark
+    public String displayNameAnonymous() {
+        return anonymousResponse.getDisplayName();
+    }
+}
@@ -2,11 +2,13 @@ package com.failforward.deaddocs_backend;
 
 import com.failforward.deaddocs_backend.dto.CommentRequest;
 import com.failforward.deaddocs_backend.dto.CommentResponse;
+import com.failforward.deaddocs_backend.dto.CursorPage;
 import com.failforward.deaddocs_backend.entity.Comment;
 import com.failforward.deaddocs_backend.entity.Story;
 import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
 import com.failforward.deaddocs_backend.repository.CommentRepo;
 import com.failforward.deaddocs_backend.service.CommentService;
+import com.failforward.deaddocs_backend.service.StoryLikesService;
 import com.failforward.deaddocs_backend.service.StoryService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +16,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -119,6 +124,36 @@ public class CommentServiceTest {
         assertEquals("Comment 1", comments.get(2).getContent());
     }
 
+    @Test
+    @Transactional
+    public void testGetCommentPage() throws StoryNotFoundException {
+        // Create a test story
+        Story testStory = createTestStory();
+        Story savedStory = storyService.addStory(testStory);
+
+        // Add multiple comments
+        addTestComment(savedStory.getId(), "user1", "Comment 1", false);
+        addTestComment(savedStory.getId(), "user2", "Comment 2", true);
+        addTestComment(savedStory.getId(), "user3", "Comment 3", false);
+
+        // First page
+        CursorPage<CommentResponse> page = commentService.getCommentPage(savedStory.getId(), null, 2);
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+
+        // Second page continues after the cursor
+        CursorPage<CommentResponse> next = commentService.getCommentPage(savedStory.getId(), page.getNextCursor(), 2);
+        assertEquals(1, next.getItems().size());
+        assertFalse(next.isHasMore());
+        assertNull(next.getNextCursor());
+
+        // Streaming returns the same comments in the same order
+        List<Long> streamed = new ArrayList<>();
+        commentService.streamCommentsByStoryId(savedStory.getId(), comment -> streamed.add(comment.getId()));
+        assertEquals(List.of(page.getItems().get(0).getId(), page.getItems().get(1).getId(),
+                next.getItems().get(0).getId()), streamed);
+    }
+
     @Test
     @Transactional
     public void testDeleteComment() throws StoryNotFoundException {
@@ -179,6 +214,34 @@ public class CommentServiceTest {
         assertEquals(2, commentService.getCommentCount(savedStory.getId()));
     }
 
+    @Test
+    @Transactional
+    public void testGetCommentCounts() throws StoryNotFoundException {
+        Story first = storyService.addStory(createTestStory());
+        Story second = storyService.addStory(createTestStory());
+        Story quiet = storyService.addStory(createTestStory());
+
+        addTestComment(first.getId(), "user1", "Comment 1", false);
+        addTestComment(first.getId(), "user2", "Comment 2", false);
+        addTestComment(second.getId(), "user1", "Comment 3", true);
+
+        // Duplicate ids are collapsed; stories without comments are absent
+        Map<Integer, Long> counts = commentService.getCommentCounts(
+                List.of(first.getId(), second.getId(), quiet.getId(), first.getId()));
+        assertEquals(2L, counts.get(first.getId()));
+        assertEquals(1L, counts.get(second.getId()));
+        assertFalse(counts.containsKey(quiet.getId()));
+
+        assertTrue(commentService.getCommentCounts(List.of()).isEmpty());
+        assertTrue(commentService.getCommentCounts(null).isEmpty());
+    }
+
+    @Test
+    public void testGetCommentCountsRejectsOversizedBatch() {
+        List<Integer> storyIds = IntStream.rangeClosed(1, StoryLikesService.MAX_BATCH_SIZE + 1).boxed().toList();
+        assertThrows(IllegalArgumentException.class, () -> commentService.getCommentCounts(storyIds));
+    }
+
     @Test
     @Transactional
     public void testGetCommentsByUserId() throws StoryNotFoundException {
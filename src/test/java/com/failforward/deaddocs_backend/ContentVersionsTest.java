@@ -0,0 +1,114 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.dto.FeedSort;
+import com.failforward.deaddocs_backend.entity.Story;
+import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
+import com.failforward.deaddocs_backend.service.CommentPurger;
+import com.failforward.deaddocs_backend.service.ContentVersions;
+import com.failforward.deaddocs_backend.service.StoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ContentVersionsTest {
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Autowired
+    private StoryService storyService;
+
+    @Autowired
+    private CommentPurger commentPurger;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Test
+    public void testCommittedChangesRotateETags() throws StoryNotFoundException {
+        // Versions move on commit, so these stories are committed and deleted afterwards
+        Story changed = storyService.addStory(TestStories.story("Versioned story"));
+        Story untouched = storyService.addStory(TestStories.story("Unversioned story"));
+
+        try {
+            // The feed tag follows the feed read model, which only counts changes once loaded
+            storyService.getFeed(FeedSort.NEWEST, null, 1);
+
+            String storyTag = contentVersions.storyETag(changed.getId());
+            String otherTag = contentVersions.storyETag(untouched.getId());
+            String countsTag = contentVersions.storiesETag(List.of(changed.getId(), untouched.getId()));
+            String feedTag = contentVersions.feedETag();
+
+            // Tags are stable while nothing changes
+            assertEquals(storyTag, contentVersions.storyETag(changed.getId()));
+            assertTrue(storyTag.startsWith("\"") && storyTag.endsWith("\""));
+
+            storyService.adjustCommentCount(changed.getId(), 1);
+
+            assertNotEquals(storyTag, contentVersions.storyETag(changed.getId()));
+            assertNotEquals(countsTag, contentVersions.storiesETag(List.of(changed.getId(), untouched.getId())));
+            assertNotEquals(feedTag, contentVersions.feedETag());
+            assertEquals(otherTag, contentVersions.storyETag(untouched.getId()));
+        } finally {
+            storyService.deleteStoryById(changed.getId());
+            storyService.deleteStoryById(untouched.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    public void testRolledBackChangesKeepETags() throws StoryNotFoundException {
+        Story story = storyService.addStory(TestStories.story("Rolled back story"));
+        String storyTag = contentVersions.storyETag(story.getId());
+
+        // Nothing commits inside this test, so the tag must not move
+        storyService.adjustHelpfulVotes(story.getId(), 1);
+        assertEquals(storyTag, contentVersions.storyETag(story.getId()));
+    }
+
+    @Test
+    public void testCountEndpointsAnswerNotModified() throws Exception {
+        Story story = storyService.addStory(TestStories.story("Counted story"));
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        try {
+            for (String path : List.of("/api/comments/count/" + story.getId(),
+                    "/api/stories/" + story.getId() + "/accurate-like-count")) {
+                String etag = mockMvc.perform(get(path))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+                assertEquals(contentVersions.storyETag(story.getId()), etag, path);
+
+                mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                        .andExpect(status().isNotModified());
+            }
+        } finally {
+            storyService.deleteStoryById(story.getId());
+        }
+    }
+
+    @Test
+    public void testCommentPurgeRotatesETag() throws StoryNotFoundException {
+        Story story = storyService.addStory(TestStories.story("Purged story"));
+        storyService.deleteStoryById(story.getId());
+        String deletedTag = contentVersions.storyETag(story.getId());
+
+        // The thread read after the purge must not revalidate against the tag handed out before it
+        commentPurger.purge(story.getId());
+        assertNotEquals(deletedTag, contentVersions.storyETag(story.getId()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.config.DbConcurrencyLimitFilter;
+import com.failforward.deaddocs_backend.dto.CommentRequest;
+import com.failforward.deaddocs_backend.service.CommentService;
+import com.failforward.deaddocs_backend.service.StoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class DbConcurrencyLimitFilterTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private StoryService storyService;
+
+    @Autowired
+    private CommentService commentService;
+
+    private MeterRegistry meterRegistry;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        DbConcurrencyLimitFilter filter = new DbConcurrencyLimitFilter(meterRegistry, true, 1, Duration.ofMillis(50));
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(filter).build();
+    }
+
+    @Test
+    public void testStreamingResponseHoldsPermitUntilComplete() throws Exception {
+        Integer storyId = storyService.addStory(TestStories.story("Streamed story")).getId();
+        try {
+            CommentRequest comment = new CommentRequest();
+            comment.setStoryId(storyId);
+            comment.setUserId("stream-user");
+            comment.setContent("Streamed comment");
+            commentService.addComment(comment);
+
+            MvcResult streaming = mockMvc.perform(get("/api/comments/story/{storyId}/stream", storyId))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            assertEquals(0.0, availablePermits(), "Streaming body still owns the permit");
+            mockMvc.perform(get("/api/comments/count/{storyId}", storyId))
+                    .andExpect(status().isServiceUnavailable());
+
+            mockMvc.perform(asyncDispatch(streaming)).andExpect(status().isOk());
+            assertEquals(1.0, availablePermits(), "Permit is returned once the stream completes");
+        } finally {
+            storyService.deleteStoryById(storyId);
+        }
+    }
+
+    @Test
+    public void testEventStreamReleasesPermitImmediately() throws Exception {
+        mockMvc.perform(get("/api/stories/events"))
+                .andExpect(request().asyncStarted());
+        assertEquals(1.0, availablePermits(), "An open SSE subscription does not hold a database permit");
+    }
+
+    private double availablePermits() {
+        return meterRegistry.get("db.concurrency.limit.available").gauge().value();
+    }
+}
@@ -0,0 +1,83 @@
+package com.failforward.deaddocs_backend;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.Profiles;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Points the "test" profile at an embedded Postgres instead of the database in application.properties
+ * One instance is started per JVM and shared by every test context; Flyway builds the schema on start.
+ * Registered through META-INF/spring.factories so plain @SpringBootTest classes pick it up.
+ * The replica pool points at the same instance, unless test.replica.separate-database is set:
+ * then it gets a second instance with the schema but no rows, which refuses writes.
+ */
+public class EmbeddedPostgresInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+    private static EmbeddedPostgres postgres;
+    private static EmbeddedPostgres replica;
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        if (!context.getEnvironment().acceptsProfiles(Profiles.of("test"))) {
+            return;
+        }
+        String url = database().getJdbcUrl("postgres", "postgres");
+        String replicaUrl = context.getEnvironment().getProperty("test.replica.separate-database", Boolean.class, false)
+                ? readOnlyReplica().getJdbcUrl("postgres", "postgres")
+                : url;
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("embeddedPostgres", Map.of(
+                "spring.datasource.url", url,
+                "spring.datasource.username", "postgres",
+                "spring.datasource.password", "postgres",
+                "app.datasource.replica.jdbc-url", replicaUrl,
+                "app.datasource.replica.username", "postgres",
+                "app.datasource.replica.password", "postgres")));
+    }
+
+    static synchronized EmbeddedPostgres database() {
+        if (postgres == null) {
+            postgres = start();
+        }
+        return postgres;
+    }
+
+    static synchronized EmbeddedPostgres readOnlyReplica() {
+        if (replica == null) {
+            replica = start();
+            Flyway.configure().dataSource(replica.getPostgresDatabase()).load().migrate();
+            try (Connection connection = replica.getPostgresDatabase().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("ALTER DATABASE postgres SET default_transaction_read_only = on");
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not make the replica read-only", e);
+            }
+        }
+        return replica;
+    }
+
+    private static EmbeddedPostgres start() {
+        EmbeddedPostgres instance;
+        try {
+            instance = EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded Postgres", e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                instance.close();
+            } catch (IOException e) {
+                // Best effort, the process is exiting
+            }
+        }));
+        return instance;
+    }
+}
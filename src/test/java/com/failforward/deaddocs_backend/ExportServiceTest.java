@@ -0,0 +1,190 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.controller.ExportController;
+import com.failforward.deaddocs_backend.dto.ExportFormat;
+import com.failforward.deaddocs_backend.dto.ExportTable;
+import com.failforward.deaddocs_backend.entity.Story;
+import com.failforward.deaddocs_backend.service.ExportService;
+import com.failforward.deaddocs_backend.service.StoryLikesService;
+import com.failforward.deaddocs_backend.service.StoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private StoryService storyService;
+
+    @Autowired
+    private StoryLikesService storyLikesService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @Transactional
+    public void testNdjsonExportCoversAllTables() throws IOException {
+        Story story = storyService.addStory(TestStories.story("Export story, with \"quotes\""));
+        storyLikesService.likeStory("export-test-user", story.getId());
+        // The export reads through JDBC, so pending inserts must reach the database first
+        entityManager.flush();
+
+        String ndjson = export(EnumSet.allOf(ExportTable.class), ExportFormat.NDJSON);
+
+        assertTrue(ndjson.contains("\"type\":\"story\",\"id\":" + story.getId() + ","));
+        assertTrue(ndjson.contains("\"story_title\":\"Export story, with \\\"quotes\\\"\""));
+        assertTrue(ndjson.contains("\"type\":\"like\""));
+        assertTrue(ndjson.contains("\"user_id\":\"export-test-user\""));
+        // One JSON object per line
+        for (String line : ndjson.split("\n")) {
+            assertTrue(line.startsWith("{") && line.endsWith("}"));
+        }
+    }
+
+    @Test
+    public void testFileExportWritesEveryTable() throws IOException {
+        Path directory = Files.createTempDirectory("export-test");
+        ExportService fileExport = new ExportService(dataSource, transactionManager, objectMapper,
+                100, true, directory.toString(), "ndjson", 1);
+        Story story = storyService.addStory(TestStories.story("File export story"));
+
+        try {
+            List<Path> files = fileExport.exportToFiles(ExportFormat.NDJSON);
+
+            assertEquals(ExportTable.values().length, files.size());
+            for (Path file : files) {
+                assertTrue(Files.exists(file), file::toString);
+            }
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(files.get(0)))) {
+                String stories = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(stories.contains("\"type\":\"story\",\"id\":" + story.getId() + ","));
+            }
+        } finally {
+            storyService.deleteStoryById(story.getId());
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void testCsvExportQuotesFields() throws IOException {
+        Story story = storyService.addStory(TestStories.story("Export story, with \"quotes\""));
+        entityManager.flush();
+
+        String csv = export(List.of(ExportTable.STORIES), ExportFormat.CSV);
+
+        assertTrue(csv.startsWith(String.join(",", ExportTable.STORIES.getColumns()) + "\n"));
+        assertTrue(csv.contains(story.getId() + ",test-founder,Test Founder,false,\"Export story, with \"\"quotes\"\"\""));
+
+        // CSV has one header row, so it takes a single table
+        assertThrows(IllegalArgumentException.class, () -> {
+            export(EnumSet.allOf(ExportTable.class), ExportFormat.CSV);
+        });
+    }
+
+    @Test
+    public void testHttpExportRequiresAdminToken() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        mockMvc.perform(get("/api/exports/all"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/exports/all").header(ExportController.ADMIN_TOKEN_HEADER, "wrong-token"))
+                .andExpect(status().isForbidden());
+
+        MvcResult started = mockMvc.perform(get("/api/exports/stories")
+                        .header(ExportController.ADMIN_TOKEN_HEADER, "test-export-token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testConcurrentHttpExportsAreCapped() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        // Take every slot, as long-running exports would
+        int taken = 0;
+        while (exportService.tryAcquireSlot()) {
+            taken++;
+        }
+        try {
+            assertTrue(taken > 0, "At least one export slot should be configured");
+            mockMvc.perform(get("/api/exports/stories").header(ExportController.ADMIN_TOKEN_HEADER, "test-export-token"))
+                    .andExpect(status().isTooManyRequests());
+        } finally {
+            for (int i = 0; i < taken; i++) {
+                exportService.releaseSlot();
+            }
+        }
+
+        // A finished export hands its slot back
+        MvcResult started = mockMvc.perform(get("/api/exports/stories")
+                        .header(ExportController.ADMIN_TOKEN_HEADER, "test-export-token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        assertTrue(exportService.tryAcquireSlot());
+        exportService.releaseSlot();
+    }
+
+    private String export(Collection<ExportTable> tables, ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(tables, format, out);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
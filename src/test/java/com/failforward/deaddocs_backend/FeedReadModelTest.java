@@ -0,0 +1,146 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.dto.FeedSort;
+import com.failforward.deaddocs_backend.dto.StoryResponse;
+import com.failforward.deaddocs_backend.entity.Story;
+import com.failforward.deaddocs_backend.repository.StoryRepo;
+import com.failforward.deaddocs_backend.service.FeedReadModel;
+import com.failforward.deaddocs_backend.service.StoryChangedEvent;
+import com.failforward.deaddocs_backend.service.StoryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class FeedReadModelTest {
+
+    @Autowired
+    private StoryService storyService;
+
+    @Autowired
+    private StoryRepo storyRepo;
+
+    // Each test builds its own model and reloads it explicitly, so the committed stories are cleaned up afterwards
+
+    @Test
+    public void testPagesPastTheWindowComeFromTheTable() {
+        Story oldest = storyService.addStory(TestStories.story("Window story 1"));
+        Story middle = storyService.addStory(TestStories.story("Window story 2"));
+        Story newest = storyService.addStory(TestStories.story("Window story 3"));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        FeedReadModel model = model(storyRepo, executor, 2);
+
+        try {
+            model.reload();
+            assertEquals(List.of(newest.getId(), middle.getId()), ids(model.page(FeedSort.NEWEST, null, null, 2)));
+            // Reaching past the two loaded stories falls back to the keyset query
+            assertEquals(List.of(newest.getId(), middle.getId(), oldest.getId()),
+                    ids(model.page(FeedSort.NEWEST, null, null, 3)));
+            assertEquals(List.of(oldest.getId()),
+                    ids(model.page(FeedSort.NEWEST, FeedSort.NEWEST.sortKey(StoryResponse.from(middle)),
+                            middle.getId(), 1)));
+
+            // Only pages served from the model are cached
+            AtomicInteger renders = new AtomicInteger();
+            for (int i = 0; i < 2; i++) {
+                model.cachedPage("inside", FeedSort.NEWEST, null, null, 2, rows -> render(renders));
+                model.cachedPage("past", FeedSort.NEWEST, null, null, 3, rows -> render(renders));
+            }
+            assertEquals(3, renders.get());
+        } finally {
+            executor.shutdownNow();
+            storyService.deleteStoryById(oldest.getId());
+            storyService.deleteStoryById(middle.getId());
+            storyService.deleteStoryById(newest.getId());
+        }
+    }
+
+    @Test
+    public void testEventsCommittedDuringReloadAreReplayed() {
+        Story story = storyService.addStory(TestStories.story("Replayed story"));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        StoryResponse created = new StoryResponse(Integer.MAX_VALUE - 1, "replay-founder", "Replay Founder", false,
+                "Created mid-reload", "Technology", "Preview", 0, 0);
+        StoryResponse liked = StoryResponse.from(story);
+        liked.setHelpfulVotes(5);
+        FeedReadModel[] holder = new FeedReadModel[1];
+        // Both changes commit after the reload has started reading the table
+        StoryRepo racingRepo = (StoryRepo) Proxy.newProxyInstance(StoryRepo.class.getClassLoader(),
+                new Class<?>[]{StoryRepo.class}, (proxy, method, args) -> {
+                    Object result = method.invoke(storyRepo, args);
+                    if (method.getName().equals("findFeedNewest")) {
+                        holder[0].onStoryChanged(StoryChangedEvent.created(created));
+                        holder[0].onStoryChanged(StoryChangedEvent.counters(liked, 5, 0));
+                    }
+                    return result;
+                });
+        holder[0] = model(racingRepo, executor, 1000);
+
+        try {
+            holder[0].reload();
+            assertEquals(created.getId(), holder[0].page(FeedSort.NEWEST, null, null, 1).get(0).getId());
+            assertEquals(5, holder[0].get(List.of(story.getId())).get(0).getHelpfulVotes());
+        } finally {
+            executor.shutdownNow();
+            storyService.deleteStoryById(story.getId());
+        }
+    }
+
+    @Test
+    public void testChangesEvictOnlyPagesTheyTouch() {
+        Story older = storyService.addStory(TestStories.story("Untouched page story"));
+        Story newer = storyService.addStory(TestStories.story("Cached page story"));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        FeedReadModel model = model(storyRepo, executor, 1000);
+        AtomicInteger renders = new AtomicInteger();
+
+        try {
+            model.reload();
+            // First NEWEST page of one story holds only the newer one
+            model.cachedPage("top", FeedSort.NEWEST, null, null, 2, rows -> render(renders));
+            assertEquals(1, renders.get());
+
+            // A like on a story further down leaves the page cached
+            StoryResponse likedOlder = StoryResponse.from(older);
+            likedOlder.setHelpfulVotes(1);
+            model.onStoryChanged(StoryChangedEvent.counters(likedOlder, 1, 0));
+            model.cachedPage("top", FeedSort.NEWEST, null, null, 2, rows -> render(renders));
+            assertEquals(1, renders.get());
+
+            // A like on the story it shows does not
+            StoryResponse likedNewer = StoryResponse.from(newer);
+            likedNewer.setHelpfulVotes(1);
+            model.onStoryChanged(StoryChangedEvent.counters(likedNewer, 1, 0));
+            model.cachedPage("top", FeedSort.NEWEST, null, null, 2, rows -> render(renders));
+            assertEquals(2, renders.get());
+        } finally {
+            executor.shutdownNow();
+            storyService.deleteStoryById(older.getId());
+            storyService.deleteStoryById(newer.getId());
+        }
+    }
+
+    private static FeedReadModel model(StoryRepo repo, ExecutorService executor, int windowSize) {
+        return new FeedReadModel(repo, new SimpleMeterRegistry(), executor, windowSize, 100);
+    }
+
+    private static byte[] render(AtomicInteger renders) {
+        renders.incrementAndGet();
+        return new byte[0];
+    }
+
+    private static List<Integer> ids(List<StoryResponse> stories) {
+        return stories.stream().map(StoryResponse::getId).toList();
+    }
+}
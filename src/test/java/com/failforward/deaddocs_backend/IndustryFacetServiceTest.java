@@ -0,0 +1,89 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.dto.IndustryFacet;
+import com.failforward.deaddocs_backend.entity.Story;
+import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
+import com.failforward.deaddocs_backend.service.IndustryFacetService;
+import com.failforward.deaddocs_backend.service.StoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class IndustryFacetServiceTest {
+    private static final String KEY = "facet test industry";
+
+    @Autowired
+    private IndustryFacetService industryFacetService;
+
+    @Autowired
+    private StoryService storyService;
+
+    @Test
+    public void testFacetsTrackStoriesAndVotes() throws StoryNotFoundException {
+        // Load facets first so the display name comes from the first story added
+        industryFacetService.getFacets();
+
+        // Facets only see committed stories, so these are committed and deleted afterwards
+        Story first = storyService.addStory(createTestStory(" Facet  Test Industry ", 3));
+        Story second = storyService.addStory(createTestStory("facet test INDUSTRY", 4));
+
+        try {
+            // Spelling variants share one facet
+            IndustryFacet facet = findFacet().orElseThrow();
+            assertEquals(2, facet.getStoryCount());
+            assertEquals(7, facet.getHelpfulVotes());
+            assertEquals("Facet Test Industry", facet.getIndustry());
+
+            // Like events update the vote total
+            storyService.adjustHelpfulVotes(second.getId(), 1);
+            assertEquals(8, findFacet().orElseThrow().getHelpfulVotes());
+
+            // Deleting a story shrinks the facet
+            storyService.deleteStoryById(first.getId());
+            assertEquals(1, findFacet().orElseThrow().getStoryCount());
+        } finally {
+            storyService.deleteStoryById(first.getId());
+            storyService.deleteStoryById(second.getId());
+        }
+
+        // Deleting the last story removes the facet
+        assertTrue(findFacet().isEmpty());
+    }
+
+    @Test
+    public void testReloadMergesSpellingVariants() {
+        Story first = storyService.addStory(createTestStory("FACET test   industry", 2));
+        Story second = storyService.addStory(createTestStory("facet test industry ", 5));
+
+        try {
+            industryFacetService.reload();
+            IndustryFacet facet = findFacet().orElseThrow();
+            assertEquals(2, facet.getStoryCount());
+            assertEquals(7, facet.getHelpfulVotes());
+            assertEquals("FACET test industry", facet.getIndustry(), "Facets are named after their oldest story");
+        } finally {
+            storyService.deleteStoryById(first.getId());
+            storyService.deleteStoryById(second.getId());
+        }
+    }
+
+    private Optional<IndustryFacet> findFacet() {
+        return industryFacetService.getFacets().stream()
+                .filter(facet -> KEY.equals(facet.getKey()))
+                .findFirst();
+    }
+
+    private Story createTestStory(String industry, int helpfulVotes) {
+        Story story = TestStories.story("Facet story");
+        story.setIndustry(industry);
+        story.setHelpfulVotes(helpfulVotes);
+        return story;
+    }
+}
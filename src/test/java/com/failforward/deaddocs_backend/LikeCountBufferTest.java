@@ -0,0 +1,237 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
+import com.failforward.deaddocs_backend.service.LikeCountBuffer;
+import com.failforward.deaddocs_backend.service.StoryCache;
+import com.failforward.deaddocs_backend.service.StoryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class LikeCountBufferTest {
+
+    @Autowired
+    private StoryService storyService;
+
+    @Autowired
+    private StoryCache storyCache;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Flushes write outside any test transaction, so these tests commit their stories and delete them afterwards
+
+    @Test
+    public void testFlushAppliesBufferedDeltasInOneStatement() throws StoryNotFoundException {
+        Integer first = storyService.addStory(TestStories.story("Buffered story 1")).getId();
+        Integer second = storyService.addStory(TestStories.story("Buffered story 2")).getId();
+        AtomicLong statements = new AtomicLong();
+        LikeCountBuffer buffer = buffer(new JdbcTemplate(dataSource) {
+            @Override
+            public int update(String sql, Object... args) {
+                statements.incrementAndGet();
+                return super.update(sql, args);
+            }
+        }, true);
+
+        try {
+            buffer.record(first, 1);
+            buffer.record(first, 1);
+            buffer.record(first, 1);
+            buffer.record(first, -1);
+            buffer.record(second, 1);
+            assertEquals(2, buffer.pendingDelta(first));
+            // Nothing is written until the flush
+            assertEquals(0, storyService.getStoryById(first).getHelpfulVotes());
+
+            assertEquals(2, buffer.flush());
+            assertEquals(1, statements.get());
+            assertEquals(0, buffer.pendingDelta(first));
+            assertEquals(2, storyService.getStoryById(first).getHelpfulVotes());
+            assertEquals(1, storyService.getStoryById(second).getHelpfulVotes());
+
+            // An empty buffer does not touch the database
+            assertEquals(0, buffer.flush());
+            assertEquals(1, statements.get());
+        } finally {
+            storyService.deleteStoryById(first);
+            storyService.deleteStoryById(second);
+        }
+    }
+
+    @Test
+    public void testReadsDuringFlushStillSeeTheDelta() throws StoryNotFoundException {
+        Integer storyId = storyService.addStory(TestStories.story("Mid-flush story")).getId();
+        AtomicLong seenMidFlush = new AtomicLong(-1);
+        LikeCountBuffer[] holder = new LikeCountBuffer[1];
+        holder[0] = buffer(new JdbcTemplate(dataSource) {
+            @Override
+            public int update(String sql, Object... args) {
+                seenMidFlush.set(holder[0].pendingDelta(storyId));
+                return super.update(sql, args);
+            }
+        }, true);
+
+        try {
+            holder[0].record(storyId, 3);
+            holder[0].flush();
+            assertEquals(3, seenMidFlush.get());
+            assertEquals(0, holder[0].pendingDelta(storyId));
+            assertEquals(3, storyService.getStoryById(storyId).getHelpfulVotes());
+        } finally {
+            storyService.deleteStoryById(storyId);
+        }
+    }
+
+    @Test
+    public void testFailedFlushIsRetried() throws StoryNotFoundException {
+        Integer storyId = storyService.addStory(TestStories.story("Retried story")).getId();
+        AtomicBoolean failNext = new AtomicBoolean(true);
+        LikeCountBuffer buffer = buffer(new JdbcTemplate(dataSource) {
+            @Override
+            public int update(String sql, Object... args) {
+                if (failNext.getAndSet(false)) {
+                    throw new DataAccessResourceFailureException("Simulated outage");
+                }
+                return super.update(sql, args);
+            }
+        }, true);
+
+        try {
+            buffer.record(storyId, 2);
+            assertEquals(0, buffer.flush());
+            // The delta is back in the buffer and still counted
+            assertEquals(2, buffer.pendingDelta(storyId));
+            assertEquals(0, storyService.getStoryById(storyId).getHelpfulVotes());
+
+            assertEquals(1, buffer.flush());
+            assertEquals(0, buffer.pendingDelta(storyId));
+            assertEquals(2, storyService.getStoryById(storyId).getHelpfulVotes());
+        } finally {
+            storyService.deleteStoryById(storyId);
+        }
+    }
+
+    @Test
+    public void testShutdownDrainsTheBuffer() throws StoryNotFoundException {
+        Integer storyId = storyService.addStory(TestStories.story("Drained story")).getId();
+        LikeCountBuffer disabled = buffer(new JdbcTemplate(dataSource), false);
+        LikeCountBuffer enabled = buffer(new JdbcTemplate(dataSource), true);
+
+        try {
+            // Only an enabled buffer can hold deltas worth draining
+            disabled.record(storyId, 1);
+            disabled.drainOnShutdown();
+            assertEquals(0, storyService.getStoryById(storyId).getHelpfulVotes());
+
+            enabled.record(storyId, 4);
+            enabled.drainOnShutdown();
+            assertEquals(0, enabled.pendingDelta(storyId));
+            assertEquals(4, storyService.getStoryById(storyId).getHelpfulVotes());
+        } finally {
+            storyService.deleteStoryById(storyId);
+        }
+    }
+
+    @Test
+    public void testOnlyCommittedDeltasAreBuffered() {
+        LikeCountBuffer buffer = buffer(new JdbcTemplate(dataSource), true);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            buffer.recordOnCommit(1, 1);
+            status.setRollbackOnly();
+        });
+        assertEquals(0, buffer.pendingDelta(1), "a rolled-back like must leave nothing to flush");
+
+        transaction.executeWithoutResult(status -> {
+            buffer.recordOnCommit(1, 1);
+            assertEquals(0, buffer.pendingDelta(1), "the delta is buffered only on commit");
+        });
+        assertEquals(1, buffer.pendingDelta(1));
+    }
+
+    @Test
+    public void testFlushedChunksStopCountingRightAway() {
+        List<Object[]> chunks = new ArrayList<>();
+        LikeCountBuffer[] holder = new LikeCountBuffer[1];
+        AtomicLong firstChunkSeenLater = new AtomicLong(-1);
+        holder[0] = buffer(new JdbcTemplate(dataSource) {
+            @Override
+            public int update(String sql, Object... args) {
+                if (chunks.size() == 1) {
+                    // The first chunk is in the table, so its delta must no longer be added on top
+                    firstChunkSeenLater.set(holder[0].pendingDelta((Integer) chunks.get(0)[0]));
+                }
+                chunks.add(args);
+                return super.update(sql, args);
+            }
+        }, true);
+
+        // More stories than one UPDATE takes; none of these IDs exist, so nothing is written
+        for (int id = -1; id >= -1001; id--) {
+            holder[0].record(id, 1);
+        }
+        assertEquals(1001, holder[0].flush());
+        assertEquals(2, chunks.size());
+        assertEquals(0, firstChunkSeenLater.get());
+    }
+
+    @Test
+    public void testDiscardWaitsForRunningFlush() throws InterruptedException {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LikeCountBuffer buffer = buffer(new JdbcTemplate(dataSource) {
+            @Override
+            public int update(String sql, Object... args) {
+                flushing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.update(sql, args);
+            }
+        }, true);
+        buffer.record(-1, 2);
+
+        Thread flush = new Thread(buffer::flush);
+        flush.start();
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        Thread discard = new Thread(() -> buffer.discard(-1));
+        discard.start();
+        discard.join(200);
+        assertTrue(discard.isAlive(), "discard must not interleave with a flush");
+
+        release.countDown();
+        flush.join(5000);
+        discard.join(5000);
+        assertFalse(discard.isAlive());
+        assertEquals(0, buffer.pendingDelta(-1));
+    }
+
+    private LikeCountBuffer buffer(JdbcTemplate jdbcTemplate, boolean enabled) {
+        return new LikeCountBuffer(jdbcTemplate, storyCache, new SimpleMeterRegistry(), enabled);
+    }
+}
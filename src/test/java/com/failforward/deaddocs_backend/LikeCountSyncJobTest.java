@@ -0,0 +1,104 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.dto.SyncJobStatus;
+import com.failforward.deaddocs_backend.repository.StoryRepo;
+import com.failforward.deaddocs_backend.service.LikeCountBuffer;
+import com.failforward.deaddocs_backend.service.LikeCountSyncJob;
+import com.failforward.deaddocs_backend.service.StoryCache;
+import com.failforward.deaddocs_backend.service.StoryLikesService;
+import com.failforward.deaddocs_backend.service.StoryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class LikeCountSyncJobTest {
+
+    @Autowired
+    private StoryService storyService;
+
+    @Autowired
+    private StoryLikesService storyLikesService;
+
+    @Autowired
+    private StoryRepo storyRepo;
+
+    @Autowired
+    private StoryCache storyCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testRunCorrectsDriftedCounts() throws Exception {
+        Integer storyId = storyService.addStory(TestStories.story("Drifted story")).getId();
+        LikeCountBuffer buffer = new LikeCountBuffer(jdbcTemplate, storyCache, new SimpleMeterRegistry(), false);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            storyLikesService.likeStory("sync-user-1", storyId);
+            storyLikesService.likeStory("sync-user-2", storyId);
+            jdbcTemplate.update("UPDATE stories SET helpful_votes = 7 WHERE id = ?", storyId);
+
+            SyncJobStatus status = runToCompletion(new LikeCountSyncJob(storyRepo, storyService, storyCache,
+                    buffer, executor, 100));
+            assertEquals(SyncJobStatus.State.COMPLETED, status.getState());
+            assertTrue(status.getStoriesCorrected() >= 1);
+            assertEquals(status.getChunksTotal(), status.getChunksDone());
+            assertEquals(2, storyService.getStoryById(storyId).getHelpfulVotes());
+        } finally {
+            executor.shutdownNow();
+            storyService.deleteStoryById(storyId);
+        }
+    }
+
+    @Test
+    public void testBufferedDeltasAreNotAppliedOnTopOfTheRecount() throws Exception {
+        Integer storyId = storyService.addStory(TestStories.story("Buffered sync story")).getId();
+        LikeCountBuffer buffer = new LikeCountBuffer(jdbcTemplate, storyCache, new SimpleMeterRegistry(), true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            storyLikesService.likeStory("sync-user-1", storyId);
+            storyLikesService.likeStory("sync-user-2", storyId);
+            // Their deltas reach the buffer while the run is already under way
+            StoryRepo recordingRepo = (StoryRepo) Proxy.newProxyInstance(StoryRepo.class.getClassLoader(),
+                    new Class<?>[]{StoryRepo.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("findMinId")) {
+                            buffer.record(storyId, 1);
+                            buffer.record(storyId, 1);
+                        }
+                        return method.invoke(storyRepo, args);
+                    });
+
+            runToCompletion(new LikeCountSyncJob(recordingRepo, storyService, storyCache, buffer, executor, 100));
+            assertEquals(0, buffer.pendingDelta(storyId));
+
+            buffer.flush();
+            assertEquals(2, storyService.getStoryById(storyId).getHelpfulVotes());
+        } finally {
+            executor.shutdownNow();
+            storyService.deleteStoryById(storyId);
+        }
+    }
+
+    private SyncJobStatus runToCompletion(LikeCountSyncJob job) throws InterruptedException {
+        job.start();
+        for (int i = 0; i < 200 && job.getStatus().getState() == SyncJobStatus.State.RUNNING; i++) {
+            Thread.sleep(50);
+        }
+        SyncJobStatus status = job.getStatus();
+        assertNotEquals(SyncJobStatus.State.RUNNING, status.getState());
+        return status;
+    }
+}
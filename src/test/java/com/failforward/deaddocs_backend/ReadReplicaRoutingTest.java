@@ -0,0 +1,115 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.dto.CommentRequest;
+import com.failforward.deaddocs_backend.entity.Story;
+import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
+import com.failforward.deaddocs_backend.service.CommentService;
+import com.failforward.deaddocs_backend.service.StoryCache;
+import com.failforward.deaddocs_backend.service.StoryLikesService;
+import com.failforward.deaddocs_backend.service.StoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against a replica that is a separate, read-only database holding the schema but no rows,
+ * so a read served by the replica comes back empty and a write sent to it fails.
+ */
+@SpringBootTest(properties = {"app.datasource.replica.enabled=true", "test.replica.separate-database=true"})
+@ActiveProfiles("test")
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    private StoryService storyService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private StoryLikesService storyLikesService;
+
+    @Autowired
+    private StoryCache storyCache;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Test
+    public void testReadOnlyWorkRunsOnReplica() throws StoryNotFoundException {
+        Story story = TestStories.story("Routed story");
+        story.setUserId("replica-founder");
+        story = storyService.addStory(story);
+
+        try {
+            assertEquals(List.of(), storyService.getAllStoriesByUserId("replica-founder"),
+                    "read-only lookups should be served by the empty replica");
+
+            // Existence checks ahead of writes must see the story committed a moment ago
+            storyCache.evict(story.getId());
+            assertEquals(story.getId(), storyService.getStoryById(story.getId()).getId());
+        } finally {
+            storyService.deleteStoryById(story.getId());
+        }
+    }
+
+    @Test
+    public void testETaggedReadsRunOnPrimary() throws StoryNotFoundException {
+        Story story = storyService.addStory(TestStories.story("Tagged story"));
+
+        try {
+            CommentRequest request = new CommentRequest();
+            request.setStoryId(story.getId());
+            request.setUserId("replica-commenter");
+            request.setCommenterName("Replica Commenter");
+            request.setContent("Read back from the primary");
+            commentService.addComment(request);
+            assertTrue(storyLikesService.likeStory("replica-liker", story.getId()));
+
+            // Each of these is served under a tag bumped by the commits above
+            assertEquals(1, commentService.getCommentCount(story.getId()), "comment count read a lagging copy");
+            assertEquals(1, commentService.getCommentsByStoryId(story.getId()).size(), "comments read a lagging copy");
+            assertEquals(1, commentService.getCommentPage(story.getId(), null, 20).getItems().size(),
+                    "comment page read a lagging copy");
+            assertEquals(1L, commentService.getCommentCounts(List.of(story.getId())).get(story.getId()),
+                    "batched comment counts read a lagging copy");
+            assertEquals(1, storyLikesService.getAccurateLikeCount(story.getId()), "like count read a lagging copy");
+            assertEquals(1L, storyLikesService.getLikeCounts(List.of(story.getId())).get(story.getId()),
+                    "batched like counts read a lagging copy");
+        } finally {
+            storyService.deleteStoryById(story.getId());
+        }
+    }
+
+    @Test
+    public void testRequestWritesRunOnPrimary() throws Exception {
+        // A request-wide session would pin the first connection a request takes, read-only or not
+        assertEquals(0, context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length,
+                "open-in-view must stay off while reads are routed to the replica");
+
+        Story story = storyService.addStory(TestStories.story("Liked through the API"));
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        try {
+            mockMvc.perform(post("/api/stories/{storyId}/like", story.getId()).param("userId", "replica-api-user"))
+                    .andExpect(status().isOk());
+            assertEquals(1, storyLikesService.getAccurateLikeCount(story.getId()));
+
+            mockMvc.perform(post("/api/stories/{storyId}/unlike", story.getId()).param("userId", "replica-api-user"))
+                    .andExpect(status().isOk());
+            assertEquals(0, storyLikesService.getAccurateLikeCount(story.getId()));
+        } finally {
+            storyService.deleteStoryById(story.getId());
+        }
+    }
+}
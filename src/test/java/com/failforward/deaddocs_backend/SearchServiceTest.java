@@ -0,0 +1,110 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.dto.CommentRequest;
+import com.failforward.deaddocs_backend.dto.CursorPage;
+import com.failforward.deaddocs_backend.dto.StorySearchResult;
+import com.failforward.deaddocs_backend.entity.Story;
+import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
+import com.failforward.deaddocs_backend.service.CommentService;
+import com.failforward.deaddocs_backend.service.SearchService;
+import com.failforward.deaddocs_backend.service.StoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SearchServiceTest {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private StoryService storyService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Test
+    @Transactional
+    public void testSearchRanksAndHighlights() throws StoryNotFoundException {
+        // Title match should outrank a preview-only match
+        Story titleMatch = storyService.addStory(createTestStory("Our quokkaventure marketplace failed",
+                "We burned through the seed round"));
+        Story previewMatch = storyService.addStory(createTestStory("Lessons from a failed startup",
+                "Nobody wanted a quokkaventure subscription box"));
+
+        CursorPage<StorySearchResult> page = searchService.search("quokkaventure", null, 10);
+        assertEquals(2, page.getItems().size());
+        assertEquals(titleMatch.getId(), page.getItems().get(0).getId());
+        assertEquals(previewMatch.getId(), page.getItems().get(1).getId());
+        assertTrue(page.getItems().get(0).getRank() > page.getItems().get(1).getRank());
+        assertTrue(page.getItems().get(1).getSnippet().contains("<mark>"));
+
+        // Paging walks the same ranking
+        CursorPage<StorySearchResult> first = searchService.search("quokkaventure", null, 1);
+        assertTrue(first.isHasMore());
+        CursorPage<StorySearchResult> second = searchService.search("quokkaventure", first.getNextCursor(), 1);
+        assertEquals(previewMatch.getId(), second.getItems().get(0).getId());
+        assertFalse(second.isHasMore());
+    }
+
+    @Test
+    @Transactional
+    public void testSearchMatchesComments() throws StoryNotFoundException {
+        Story story = storyService.addStory(createTestStory("A story about hardware", "Shipping was hard"));
+
+        CommentRequest request = new CommentRequest();
+        request.setStoryId(story.getId());
+        request.setUserId("test-user-123");
+        request.setCommenterName("Test User");
+        request.setAnonymous(false);
+        request.setContent("Same thing happened with our wombatronics prototype");
+        commentService.addComment(request);
+
+        CursorPage<StorySearchResult> page = searchService.search("wombatronics", null, 10);
+        assertEquals(1, page.getItems().size());
+        assertEquals(story.getId(), page.getItems().get(0).getId());
+    }
+
+    @Test
+    @Transactional
+    public void testSnippetsEscapeStoryText() {
+        storyService.addStory(createTestStory("Markup story",
+                "Our numbatfinance app: 2 < 3 & \"lending\" <img src=x onerror=alert(1)"));
+
+        String snippet = searchService.search("numbatfinance", null, 10).getItems().get(0).getSnippet();
+        String markup = snippet.replace("<mark>", "").replace("</mark>", "");
+        assertFalse(markup.contains("<") || markup.contains(">"), "Story text must reach clients escaped: " + snippet);
+        assertTrue(snippet.contains("&lt;"), snippet);
+        assertTrue(snippet.contains("<mark>numbatfinance</mark>"), snippet);
+    }
+
+    @Test
+    public void testInvalidSearchInputs() {
+        // Test empty query
+        assertThrows(IllegalArgumentException.class, () -> {
+            searchService.search("  ", null, 10);
+        });
+
+        // Test overly long query
+        assertThrows(IllegalArgumentException.class, () -> {
+            searchService.search("a".repeat(SearchService.MAX_QUERY_LENGTH + 1), null, 10);
+        });
+
+        // Test malformed cursor
+        assertThrows(IllegalArgumentException.class, () -> {
+            searchService.search("startup", "not-a-cursor", 10);
+        });
+    }
+
+    private Story createTestStory(String title, String previewText) {
+        Story story = TestStories.story(title);
+        story.setPreviewText(previewText);
+        return story;
+    }
+}
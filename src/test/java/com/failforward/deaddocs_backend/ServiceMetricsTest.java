@@ -0,0 +1,44 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.config.StatementCounter;
+import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
+import com.failforward.deaddocs_backend.service.StoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ServiceMetricsTest {
+
+    @Autowired
+    private StoryService storyService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testServiceCallsAreTimedByOutcome() {
+        assertThrows(StoryNotFoundException.class, () -> storyService.getStoryById(-1));
+
+        Timer failures = meterRegistry.get("app.service.calls")
+                .tag("service", "StoryService")
+                .tag("method", "getStoryById")
+                .tag("outcome", "error")
+                .tag("exception", "StoryNotFoundException")
+                .timer();
+        assertTrue(failures.count() >= 1);
+    }
+
+    @Test
+    public void testStatementsAreCountedPerThread() {
+        long before = StatementCounter.current();
+        storyService.getAllStoriesByUserId("metrics-test-user");
+        assertTrue(StatementCounter.current() > before);
+    }
+}
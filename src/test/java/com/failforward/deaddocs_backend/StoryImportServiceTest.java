@@ -0,0 +1,85 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.dto.BulkImportResult;
+import com.failforward.deaddocs_backend.service.StoryImportService;
+import com.failforward.deaddocs_backend.service.StoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class StoryImportServiceTest {
+
+    @Autowired
+    private StoryImportService storyImportService;
+
+    @Autowired
+    private StoryService storyService;
+
+    @Test
+    @Transactional
+    public void testImportNdjsonReportsRowErrors() throws IOException {
+        String userId = "bulk-import-ndjson-user";
+        String body = storyJson(userId, "Imported story 1") + "\n"
+                + "{not json\n"
+                + "\n"
+                + storyJson(userId, "x".repeat(256)) + "\n"
+                + storyJson(userId, "Imported story 2") + "\n";
+
+        BulkImportResult result = storyImportService.importNdjson(stream(body));
+
+        // Blank lines are skipped, bad rows are reported by position
+        assertEquals(4, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+        assertEquals(3, result.getErrors().get(1).getRow());
+        assertTrue(result.getErrors().get(1).getMessage().contains("Story title is too long"));
+
+        assertEquals(2, storyService.getAllStoriesByUserId(userId).size());
+    }
+
+    @Test
+    @Transactional
+    public void testImportJsonArray() throws IOException {
+        String userId = "bulk-import-array-user";
+        String body = "[" + storyJson(userId, "Array story 1") + ","
+                + "{\"userId\":\"" + userId + "\",\"storyTitle\":\"Typed story\",\"helpfulVotes\":{\"n\":[1]}},"
+                + storyJson(userId, "Array story 2") + "]";
+
+        BulkImportResult result = storyImportService.importJsonArray(stream(body));
+
+        // A wrongly typed field fails its own row and the import continues
+        assertEquals(3, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+        assertEquals(2, storyService.getAllStoriesByUserId(userId).size());
+
+        // Anything other than an array is rejected up front
+        assertThrows(IllegalArgumentException.class, () -> {
+            storyImportService.importJsonArray(stream(storyJson(userId, "Not an array")));
+        });
+    }
+
+    private InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String storyJson(String userId, String title) {
+        return "{\"userId\":\"" + userId + "\",\"founderName\":\"Test Founder\",\"storyTitle\":\"" + title
+                + "\",\"industry\":\"Technology\",\"previewText\":\"This is a test story\"}";
+    }
+}
@@ -0,0 +1,286 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.dto.CommentRequest;
+import com.failforward.deaddocs_backend.dto.CursorPage;
+import com.failforward.deaddocs_backend.dto.FeedSort;
+import com.failforward.deaddocs_backend.dto.StoryResponse;
+import com.failforward.deaddocs_backend.entity.Story;
+import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
+import com.failforward.deaddocs_backend.repository.CommentRepo;
+import com.failforward.deaddocs_backend.service.CommentPurger;
+import com.failforward.deaddocs_backend.service.CommentService;
+import com.failforward.deaddocs_backend.service.StoryLikesService;
+import com.failforward.deaddocs_backend.service.StoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class StoryServiceTest {
+
+    @Autowired
+    private StoryService storyService;
+
+    @Autowired
+    private StoryLikesService storyLikesService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CommentRepo commentRepo;
+
+    @Autowired
+    private CommentPurger commentPurger;
+
+    // The feed is served from a read model that only sees committed writes,
+    // so feed tests commit their stories and delete them afterwards
+
+    @Test
+    public void testNewestFeedPagination() {
+        // Create test stories, newest gets the highest id
+        Story first = storyService.addStory(createTestStory("Feed story 1", 0, 0));
+        Story second = storyService.addStory(createTestStory("Feed story 2", 0, 0));
+        Story third = storyService.addStory(createTestStory("Feed story 3", 0, 0));
+
+        try {
+            // First page
+            CursorPage<StoryResponse> page = storyService.getFeed(FeedSort.NEWEST, null, 2);
+            assertEquals(2, page.getItems().size());
+            assertEquals(third.getId(), page.getItems().get(0).getId());
+            assertEquals(second.getId(), page.getItems().get(1).getId());
+            assertTrue(page.isHasMore());
+            assertNotNull(page.getNextCursor());
+
+            // Second page continues after the cursor
+            CursorPage<StoryResponse> next = storyService.getFeed(FeedSort.NEWEST, page.getNextCursor(), 1);
+            assertEquals(first.getId(), next.getItems().get(0).getId());
+        } finally {
+            deleteStories(first, second, third);
+        }
+    }
+
+    @Test
+    public void testMostHelpfulFeedOrdering() {
+        // Create stories with vote counts high enough to lead the feed
+        Story first = storyService.addStory(createTestStory("Helpful story 1", 1_000_000, 0));
+        Story second = storyService.addStory(createTestStory("Helpful story 2", 1_000_001, 0));
+        Story third = storyService.addStory(createTestStory("Helpful story 3", 1_000_001, 0));
+
+        try {
+            // Walk the feed two rows at a time
+            CursorPage<StoryResponse> page = storyService.getFeed(FeedSort.MOST_HELPFUL, null, 2);
+            CursorPage<StoryResponse> next = storyService.getFeed(FeedSort.MOST_HELPFUL, page.getNextCursor(), 2);
+
+            List<StoryResponse> items = new ArrayList<>(page.getItems());
+            items.addAll(next.getItems());
+
+            // Verify descending order and no duplicates across pages
+            Set<Integer> seen = new HashSet<>();
+            for (int i = 0; i < items.size(); i++) {
+                assertTrue(seen.add(items.get(i).getId()));
+                if (i > 0) {
+                    StoryResponse previous = items.get(i - 1);
+                    StoryResponse current = items.get(i);
+                    assertTrue(previous.getHelpfulVotes() > current.getHelpfulVotes()
+                            || (previous.getHelpfulVotes() == current.getHelpfulVotes() && previous.getId() > current.getId()));
+                }
+            }
+            assertEquals(1_000_001, items.get(0).getHelpfulVotes());
+        } finally {
+            deleteStories(first, second, third);
+        }
+    }
+
+    @Test
+    public void testFeedReadModelTracksWrites() throws StoryNotFoundException {
+        Story story = storyService.addStory(createTestStory("Read model story", 2_000_000, 0));
+
+        try {
+            // New story leads the most-helpful feed, including the cached JSON page
+            assertEquals(story.getId(), storyService.getFeed(FeedSort.MOST_HELPFUL, null, 1).getItems().get(0).getId());
+            String json = new String(storyService.getFeedJson(FeedSort.MOST_HELPFUL, null, 1), StandardCharsets.UTF_8);
+            assertTrue(json.contains("\"helpfulVotes\":2000000"));
+
+            // Counter changes are applied incrementally and drop the cached page
+            storyService.adjustHelpfulVotes(story.getId(), 1);
+            storyService.adjustCommentCount(story.getId(), 2);
+            StoryResponse top = storyService.getFeed(FeedSort.MOST_HELPFUL, null, 1).getItems().get(0);
+            assertEquals(2_000_001, top.getHelpfulVotes());
+            assertEquals(2, top.getCommentCount());
+            json = new String(storyService.getFeedJson(FeedSort.MOST_HELPFUL, null, 1), StandardCharsets.UTF_8);
+            assertTrue(json.contains("\"helpfulVotes\":2000001"));
+
+            // Deleted stories leave the feed
+            storyService.deleteStoryById(story.getId());
+            assertNotEquals(story.getId(), storyService.getFeed(FeedSort.MOST_HELPFUL, null, 1).getItems().stream()
+                    .findFirst().map(StoryResponse::getId).orElse(null));
+        } finally {
+            deleteStories(story);
+        }
+    }
+
+    @Test
+    @Transactional
+    public void testGetStoryByIdReturnsIsolatedSnapshots() throws StoryNotFoundException {
+        Story saved = storyService.addStory(createTestStory("Cached story", 3, 1));
+
+        // Mutating a returned snapshot must not leak into the cache
+        Story first = storyService.getStoryById(saved.getId());
+        first.setHelpfulVotes(999);
+
+        Story second = storyService.getStoryById(saved.getId());
+        assertNotSame(first, second);
+        assertEquals(3, second.getHelpfulVotes());
+
+        // Writes invalidate the cached snapshot
+        storyService.updateStoryByHelpfulVotes(saved.getId(), 7);
+        assertEquals(7, storyService.getStoryById(saved.getId()).getHelpfulVotes());
+    }
+
+    @Test
+    @Transactional
+    public void testAdjustCountersAtomically() throws StoryNotFoundException {
+        Story saved = storyService.addStory(createTestStory("Counter story", 1, 0));
+
+        // Increment and decrement return the new values
+        assertEquals(2, storyService.adjustHelpfulVotes(saved.getId(), 1).getHelpfulVotes());
+        assertEquals(1, storyService.adjustHelpfulVotes(saved.getId(), -1).getHelpfulVotes());
+        assertEquals(1, storyService.adjustCommentCount(saved.getId(), 1).getCommentCount());
+
+        // Counts never drop below zero
+        assertEquals(0, storyService.adjustHelpfulVotes(saved.getId(), -5).getHelpfulVotes());
+
+        // The returned snapshot is the whole updated row
+        Story adjusted = storyService.adjustCommentCount(saved.getId(), 1);
+        assertEquals("Counter story", adjusted.getStoryTitle());
+        assertEquals(saved.getUserId(), adjusted.getUserId());
+
+        // Missing story
+        assertThrows(StoryNotFoundException.class, () -> {
+            storyService.adjustHelpfulVotes(Integer.MAX_VALUE, 1);
+        });
+    }
+
+    @Test
+    public void testAdjustedCountsAreNotServedStaleFromCache() throws StoryNotFoundException {
+        // Cache eviction happens around commit, so this story is committed and deleted afterwards
+        Story saved = storyService.addStory(createTestStory("Cached counter story", 0, 0));
+        try {
+            assertEquals(0, storyService.getStoryById(saved.getId()).getHelpfulVotes());
+            storyService.adjustHelpfulVotes(saved.getId(), 1);
+            storyService.adjustCommentCount(saved.getId(), 2);
+
+            Story reread = storyService.getStoryById(saved.getId());
+            assertEquals(1, reread.getHelpfulVotes());
+            assertEquals(2, reread.getCommentCount());
+        } finally {
+            storyService.deleteStoryById(saved.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    public void testDeleteStoryCascades() throws StoryNotFoundException {
+        Story saved = storyService.addStory(createTestStory("Deleted story", 0, 0));
+        storyLikesService.likeStory("cascade-user", saved.getId());
+        addComment(saved.getId());
+        addComment(saved.getId());
+
+        // Likes, comments and the story go together, in this transaction
+        assertFalse(storyService.deleteStoryById(saved.getId()));
+        assertEquals(0, storyLikesService.getLikeCount(saved.getId()));
+        assertEquals(0, commentRepo.countByStoryId(saved.getId()));
+        assertThrows(StoryNotFoundException.class, () -> {
+            storyService.getStoryById(saved.getId());
+        });
+    }
+
+    @Test
+    @Transactional
+    public void testPurgeCommentsInChunks() throws StoryNotFoundException {
+        Story saved = storyService.addStory(createTestStory("Purged story", 0, 0));
+        for (int i = 0; i < 3; i++) {
+            addComment(saved.getId());
+        }
+
+        // Background purge walks the thread chunk by chunk
+        assertEquals(3, commentPurger.purge(saved.getId()));
+        assertEquals(0, commentRepo.countByStoryId(saved.getId()));
+    }
+
+    @Test
+    @Transactional
+    public void testCommentsOfDeletedStoryAreHiddenUntilPurged() throws StoryNotFoundException {
+        Story saved = storyService.addStory(createTestStory("Purging story", 0, 0));
+        Integer storyId = saved.getId();
+        addComment(storyId);
+        addComment(storyId);
+
+        // The background purge only starts after commit, so the rows are still there
+        assertTrue(storyService.deleteStoryById(storyId, true));
+        assertEquals(2, commentRepo.countByStoryId(storyId));
+
+        assertTrue(commentService.getCommentsByStoryId(storyId).isEmpty());
+        assertTrue(commentService.getCommentPage(storyId, null, 10).getItems().isEmpty());
+        assertEquals(0, commentService.getCommentCount(storyId));
+        assertFalse(commentService.getCommentCounts(List.of(storyId)).containsKey(storyId));
+        assertTrue(commentService.getCommentsByUserId("test-user-123").stream()
+                .noneMatch(comment -> storyId.equals(comment.getStoryId())));
+    }
+
+    @Test
+    public void testInvalidFeedInputs() {
+        // Test invalid page size
+        assertThrows(IllegalArgumentException.class, () -> {
+            storyService.getFeed(FeedSort.NEWEST, null, 0);
+        });
+
+        // Test malformed cursor
+        assertThrows(IllegalArgumentException.class, () -> {
+            storyService.getFeed(FeedSort.NEWEST, "not-a-cursor", 10);
+        });
+
+        // Test cursor from a different sort order
+        String cursor = storyService.getFeed(FeedSort.NEWEST, null, 1).getNextCursor();
+        if (cursor != null) {
+            assertThrows(IllegalArgumentException.class, () -> {
+                storyService.getFeed(FeedSort.MOST_HELPFUL, cursor, 10);
+            });
+        }
+    }
+
+    private void addComment(Integer storyId) throws StoryNotFoundException {
+        CommentRequest request = new CommentRequest();
+        request.setStoryId(storyId);
+        request.setUserId("test-user-123");
+        request.setCommenterName("Test User");
+        request.setAnonymous(false);
+        request.setContent("This is a test comment");
+        commentService.addComment(request);
+    }
+
+    private void deleteStories(Story... stories) {
+        for (Story story : stories) {
+            storyService.deleteStoryById(story.getId());
+        }
+    }
+
+    private Story createTestStory(String title, int helpfulVotes, int commentCount) {
+        Story story = TestStories.story(title);
+        story.setHelpfulVotes(helpfulVotes);
+        story.setCommentCount(commentCount);
+        return story;
+    }
+}
@@ -0,0 +1,142 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.dto.StoryResponse;
+import com.failforward.deaddocs_backend.entity.Story;
+import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
+import com.failforward.deaddocs_backend.service.FeedReadModel;
+import com.failforward.deaddocs_backend.service.StoryChangedEvent;
+import com.failforward.deaddocs_backend.service.StoryService;
+import com.failforward.deaddocs_backend.service.StoryUpdateBus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class StoryUpdateBusTest {
+
+    @Autowired
+    private StoryUpdateBus storyUpdateBus;
+
+    @Autowired
+    private StoryService storyService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FeedReadModel feedReadModel;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testBurstsAreCoalescedPerStory() throws StoryNotFoundException, InterruptedException {
+        // The bus reacts to committed changes, so this story is committed and deleted afterwards
+        Story story = storyService.addStory(TestStories.story("Live story"));
+        double before = subscribers();
+        SseEmitter storyStream = storyUpdateBus.subscribeToStory(story.getId());
+        SseEmitter feedStream = storyUpdateBus.subscribeToFeed();
+
+        // A bus of its own, so only this test's events reach the capturing emitters
+        List<CapturingEmitter> emitters = new CopyOnWriteArrayList<>();
+        StoryUpdateBus capturingBus = new StoryUpdateBus(feedReadModel, objectMapper, new SimpleMeterRegistry(),
+                64, 10, Duration.ofMinutes(1)) {
+            @Override
+            protected SseEmitter newEmitter(long timeoutMillis) {
+                CapturingEmitter emitter = new CapturingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        capturingBus.subscribeToStory(story.getId());
+        capturingBus.subscribeToFeed();
+
+        try {
+            assertNotNull(storyStream);
+            assertNotNull(feedStream);
+            assertEquals(before + 2, subscribers());
+
+            for (int i = 0; i < 10; i++) {
+                Story liked = storyService.adjustHelpfulVotes(story.getId(), 1);
+                capturingBus.onStoryChanged(StoryChangedEvent.counters(StoryResponse.from(liked), 1, 0));
+            }
+            Story commented = storyService.adjustCommentCount(story.getId(), 1);
+            capturingBus.onStoryChanged(StoryChangedEvent.counters(StoryResponse.from(commented), 0, 1));
+
+            // Eleven changes coalesce into one update per subscriber, well inside each buffer
+            double dropped = droppedMessages();
+            storyUpdateBus.publishPending();
+            capturingBus.publishPending();
+            assertEquals(dropped, droppedMessages());
+            for (CapturingEmitter emitter : emitters) {
+                assertTrue(emitter.awaitUpdates(1), "subscriber never received the update");
+            }
+
+            // Nothing is pending until the story changes again
+            capturingBus.publishPending();
+            Thread.sleep(200);
+            for (CapturingEmitter emitter : emitters) {
+                assertEquals(1, emitter.updates().size(), "subscriber received more than one update");
+                String update = emitter.updates().get(0);
+                assertTrue(update.contains("\"storyId\":" + story.getId()), update);
+                assertTrue(update.contains("\"helpfulVotes\":10"), update);
+                assertTrue(update.contains("\"commentCount\":1"), update);
+            }
+        } finally {
+            storyService.deleteStoryById(story.getId());
+            storyUpdateBus.publishPending();
+            storyStream.complete();
+            feedStream.complete();
+            capturingBus.shutdown();
+        }
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("sse.subscribers").gauge().value();
+    }
+
+    private double droppedMessages() {
+        return meterRegistry.get("sse.messages.dropped").counter().count();
+    }
+
+    /**
+     * Records each event sent instead of writing it to a response
+     */
+    private static final class CapturingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder event = new StringBuilder();
+            builder.build().forEach(part -> event.append(part.getData()));
+            events.add(event.toString());
+        }
+
+        List<String> updates() {
+            return events.stream().filter(event -> event.contains("event:story-update")).toList();
+        }
+
+        boolean awaitUpdates(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (updates().size() < count) {
+                if (System.currentTimeMillis() > deadline) {
+                    return false;
+                }
+                Thread.sleep(20);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.entity.Story;
+
+/**
+ * Story fixtures shared by the service tests
+ */
+final class TestStories {
+
+    private TestStories() {
+    }
+
+    static Story story(String title) {
+        Story story = new Story();
+        story.setUserId("test-founder");
+        story.setFounderName("Test Founder");
+        story.setAnonymous(false);
+        story.setStoryTitle(title);
+        story.setIndustry("Technology");
+        story.setPreviewText("This is a test story");
+        story.setHelpfulVotes(0);
+        story.setCommentCount(0);
+        return story;
+    }
+}
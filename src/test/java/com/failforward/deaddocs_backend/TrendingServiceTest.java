@@ -0,0 +1,116 @@
+package com.failforward.deaddocs_backend;
+
+import com.failforward.deaddocs_backend.dto.RemovedLike;
+import com.failforward.deaddocs_backend.dto.StoryResponse;
+import com.failforward.deaddocs_backend.entity.Story;
+import com.failforward.deaddocs_backend.exceptions.StoryNotFoundException;
+import com.failforward.deaddocs_backend.service.StoryLikesService;
+import com.failforward.deaddocs_backend.service.StoryService;
+import com.failforward.deaddocs_backend.service.TrendingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TrendingServiceTest {
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private StoryService storyService;
+
+    @Autowired
+    private StoryLikesService storyLikesService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.trending.half-life:6h}")
+    private Duration halfLife;
+
+    @Test
+    public void testRecentActivityOutranksOlderActivity() {
+        // Stories must be committed so the feed read model can resolve them
+        Story older = storyService.addStory(TestStories.story("Trending story old"));
+        Story newer = storyService.addStory(TestStories.story("Trending story new"));
+
+        try {
+            // Make sure scores are loaded before recording activity
+            trendingService.getTrending(1);
+            long now = System.currentTimeMillis();
+
+            // 1000 likes three half-lives ago decay to 125, below 500 likes now
+            trendingService.recordActivity(older.getId(), 1000, now - 3 * halfLife.toMillis());
+            trendingService.recordActivity(newer.getId(), 500, now);
+            List<Integer> ranking = ids(trendingService.getTrending(100));
+            assertTrue(ranking.indexOf(newer.getId()) >= 0);
+            assertTrue(ranking.indexOf(newer.getId()) < ranking.indexOf(older.getId()));
+
+            // Fresh activity moves the older story back ahead
+            trendingService.recordActivity(older.getId(), 1000, now);
+            ranking = ids(trendingService.getTrending(100));
+            assertTrue(ranking.indexOf(older.getId()) < ranking.indexOf(newer.getId()));
+        } finally {
+            storyService.deleteStoryById(older.getId());
+            storyService.deleteStoryById(newer.getId());
+        }
+
+        // Deleted stories leave the ranking
+        List<Integer> ranking = ids(trendingService.getTrending(100));
+        assertFalse(ranking.contains(older.getId()));
+        assertFalse(ranking.contains(newer.getId()));
+    }
+
+    @Test
+    public void testUnlikeTakesBackOriginalContribution() throws StoryNotFoundException {
+        Story liked = storyService.addStory(TestStories.story("Trending story unliked"));
+        Story reference = storyService.addStory(TestStories.story("Trending story reference"));
+
+        try {
+            // A like made three half-lives ago contributes 1/8 once scores are rebuilt
+            storyLikesService.likeStory("trending-user", liked.getId());
+            jdbcTemplate.update("UPDATE story_likes SET liked_at = ? WHERE story_id = ?",
+                    LocalDateTime.now().minus(halfLife.multipliedBy(3)), liked.getId());
+            trendingService.reload();
+            long now = System.currentTimeMillis();
+            trendingService.recordActivity(liked.getId(), 1, now);
+            trendingService.recordActivity(reference.getId(), 0.5, now);
+
+            // Unliking removes the old like's 1/8, not a full like at today's weight
+            Optional<RemovedLike> removed = storyLikesService.removeLike("trending-user", liked.getId());
+            assertTrue(removed.isPresent());
+            storyService.adjustHelpfulVotes(liked.getId(), -1, removed.get().getLikedAt());
+
+            List<Integer> ranking = ids(trendingService.getTrending(100));
+            assertTrue(ranking.indexOf(liked.getId()) >= 0, "Fresh activity should keep the story ranked");
+            assertTrue(ranking.indexOf(liked.getId()) < ranking.indexOf(reference.getId()),
+                    "Unlike should only take back the decayed contribution of the old like");
+        } finally {
+            storyService.deleteStoryById(liked.getId());
+            storyService.deleteStoryById(reference.getId());
+        }
+    }
+
+    @Test
+    public void testInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            trendingService.getTrending(0);
+        });
+    }
+
+    private List<Integer> ids(List<StoryResponse> stories) {
+        return stories.stream().map(StoryResponse::getId).toList();
+    }
+}